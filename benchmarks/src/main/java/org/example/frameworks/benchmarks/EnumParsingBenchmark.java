@@ -0,0 +1,37 @@
+package org.example.frameworks.benchmarks;
+
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * TODO: Бенчмарк разбора статуса и приоритета из строки так, как это делает TaskServices:
+ *  valueOf(value.toUpperCase()). Входные строки в разном регистре, как приходят от клиентов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnumParsingBenchmark {
+
+    @Param({"in_progress", "IN_PROGRESS", "Completed"})
+    public String status;
+
+    @Param({"high", "MEDIUM"})
+    public String priority;
+
+    @Benchmark
+    public TaskStatus parseStatus() {
+        return TaskStatus.valueOf(status.toUpperCase());
+    }
+
+    @Benchmark
+    public TaskPriority parsePriority() {
+        return TaskPriority.valueOf(priority.toUpperCase());
+    }
+}
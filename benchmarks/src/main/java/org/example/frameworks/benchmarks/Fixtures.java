@@ -0,0 +1,95 @@
+package org.example.frameworks.benchmarks;
+
+import org.example.frameworks.dto.CommentDto;
+import org.example.frameworks.dto.TaskDto;
+import org.example.frameworks.entity.Comment;
+import org.example.frameworks.entity.Task;
+import org.example.frameworks.entity.User;
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * TODO: Тестовые данные для бенчмарков: сущности и DTO, похожие на типичные данные сервиса.
+ */
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 12, 30);
+
+    private Fixtures() {
+    }
+
+    static User user(int id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.org");
+        user.setPassword("password" + id);
+        user.setCreatedAt(NOW);
+        user.setUpdatedAt(NOW);
+        return user;
+    }
+
+    static Task task(int id, int commentCount) {
+        Task task = new Task();
+        task.setId(id);
+        task.setTitle("Задача " + id);
+        task.setDescription("Подробное описание задачи " + id + ", достаточно длинное для реалистичного JSON");
+        task.setCompleted(false);
+        task.setStatus(TaskStatus.IN_PROGRESS);
+        task.setPriority(TaskPriority.HIGH);
+        task.setAuthors(user(1));
+        task.setExecutor(user(2));
+        task.setCreatedAt(NOW);
+        task.setUpdateAt(NOW);
+        List<Comment> comments = new ArrayList<>(commentCount);
+        for (int i = 0; i < commentCount; i++) {
+            comments.add(comment(id * 100 + i, task));
+        }
+        task.setComments(comments);
+        return task;
+    }
+
+    static Comment comment(int id, Task task) {
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setText("Комментарий " + id);
+        comment.setTask(task);
+        comment.setCreatedAt(NOW);
+        comment.setUpdateAt(NOW);
+        return comment;
+    }
+
+    static TaskDto taskDto(int id, int commentCount) {
+        List<CommentDto> comments = new ArrayList<>(commentCount);
+        for (int i = 0; i < commentCount; i++) {
+            comments.add(new CommentDto(id * 100 + i, "Комментарий " + i, id, NOW, NOW, 0L));
+        }
+        TaskDto taskDto = new TaskDto();
+        taskDto.setId(id);
+        taskDto.setTitle("Задача " + id);
+        taskDto.setDescription("Подробное описание задачи " + id + ", достаточно длинное для реалистичного JSON");
+        taskDto.setCompleted(false);
+        taskDto.setStatus("in_progress");
+        taskDto.setPriority("high");
+        taskDto.setComments(comments);
+        taskDto.setCreatedAt(NOW);
+        taskDto.setUpdateAt(NOW);
+        return taskDto;
+    }
+
+    static List<TaskDto> taskDtos(int size, int commentCount) {
+        List<TaskDto> tasks = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            TaskDto taskDto = taskDto(i, commentCount);
+            taskDto.setAuthors("user1");
+            taskDto.setExecutor("user2");
+            tasks.add(taskDto);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.frameworks.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.frameworks.dto.TaskDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * TODO: Бенчмарк форматов ответа для списков TaskDto с комментариями: JSON, CBOR и Smile,
+ *  без сжатия и с gzip, как их отдает сервер при server.compression.enabled.
+ *  Время кодирования - основной результат, размер тела на проводе - счетчик bytes
+ *  (строка ":bytes" в отчете JMH).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"none", "gzip"})
+    public String compression;
+
+    private ObjectMapper objectMapper;
+
+    private List<TaskDto> tasks;
+
+    /**
+     * Размер закодированного тела последней операции.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+
+        public long bytes;
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = switch (format) {
+            case "cbor" -> CBORMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            case "smile" -> SmileMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+            default -> JsonMapper.builder()
+                    .addModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .build();
+        };
+        tasks = Fixtures.taskDtos(size, 5);
+    }
+
+    @Benchmark
+    public byte[] encodeTaskList(WireSize wireSize) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(tasks);
+        if ("gzip".equals(compression)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(body);
+            }
+            body = out.toByteArray();
+        }
+        wireSize.bytes = body.length;
+        return body;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.frameworks.benchmarks;
+
+import org.example.frameworks.dto.CommentDto;
+import org.example.frameworks.dto.TaskDto;
+import org.example.frameworks.dto.UserDto;
+import org.example.frameworks.entity.Comment;
+import org.example.frameworks.entity.Task;
+import org.example.frameworks.entity.User;
+import org.example.frameworks.services.serv.CommentServices;
+import org.example.frameworks.services.serv.TaskServices;
+import org.example.frameworks.services.serv.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * TODO: Бенчмарк преобразований сущность <-> DTO в сервисном слое.
+ *  Запуск с аллокациями: java -jar benchmarks/target/benchmarks.jar MappingBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"0", "10", "100"})
+    public int commentCount;
+
+    private Task task;
+
+    private TaskDto taskDto;
+
+    private Comment comment;
+
+    private User user;
+
+    /**
+     * Сервис без репозиториев: mapToEntity обращается к ним только при заданных authors/executor.
+     */
+    private TaskServices taskServices;
+
+    @Setup
+    public void setUp() {
+        task = Fixtures.task(1, commentCount);
+        taskDto = Fixtures.taskDto(1, commentCount);
+        comment = Fixtures.comment(1, task);
+        user = Fixtures.user(1);
+        taskServices = new TaskServices(null, null, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public TaskDto taskMapToDto() {
+        return TaskServices.mapToDto(task);
+    }
+
+    @Benchmark
+    public Task taskMapToEntity() {
+        return taskServices.mapToEntity(taskDto);
+    }
+
+    @Benchmark
+    public CommentDto commentMapToDo() {
+        return CommentServices.mapToDo(comment);
+    }
+
+    @Benchmark
+    public UserDto userMapToDto() {
+        return UserService.mapToDto(user);
+    }
+}
@@ -0,0 +1,55 @@
+// Нагрузочный тест k6: конкурентные обновления одной задачи с оптимистической блокировкой.
+// Каждая итерация читает задачу и отправляет PUT с прочитанной версией.
+// Запуск: k6 run -e BASE_URL=http://localhost:8080 -e TASK_ID=1 -e VUS=50 load-test/contention.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Rate } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TASK_ID = __ENV.TASK_ID || 1;
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+const applied = new Counter('task_updates_applied');
+const conflicts = new Rate('task_update_conflicts');
+
+export const options = {
+    scenarios: {
+        contention: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 50),
+            duration: __ENV.DURATION || '1m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+function readTask() {
+    const res = http.get(`${BASE_URL}/tasks/${TASK_ID}`, { tags: { name: 'GET /tasks/{id}' } });
+    check(res, { 'task 200': (r) => r.status === 200 });
+    return res.json();
+}
+
+export function setup() {
+    return { version: readTask().version };
+}
+
+export default function () {
+    const task = readTask();
+    task.description = `vu ${__VU} iteration ${__ITER}`;
+    delete task.comments;
+
+    const res = http.put(`${BASE_URL}/tasks/${TASK_ID}`, JSON.stringify(task),
+        Object.assign({ tags: { name: 'PUT /tasks/{id}' } }, JSON_HEADERS));
+    check(res, { 'put 200/409': (r) => r.status === 200 || r.status === 409 });
+    conflicts.add(res.status === 409);
+    if (res.status === 200) {
+        applied.add(1);
+    }
+}
+
+// Каждое принятое обновление увеличивает версию ровно на 1, поэтому потерянные обновления:
+// task_updates_applied - (итоговая версия - начальная версия). При работающей блокировке - 0.
+export function teardown(data) {
+    const finalVersion = readTask().version;
+    console.log(`Версия задачи: ${data.version} -> ${finalVersion}, прирост: ${finalVersion - data.version}`);
+}
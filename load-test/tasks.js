@@ -0,0 +1,25 @@
+// Нагрузочный тест k6 для сравнения платформенных и виртуальных потоков.
+// Запуск: k6 run -e BASE_URL=http://localhost:8080 -e VUS=1000 load-test/tasks.js
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        tasks: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 500),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export default function () {
+    const page = http.get(`${BASE_URL}/tasks?size=20`, { tags: { name: 'GET /tasks' } });
+    check(page, { 'page 200': (r) => r.status === 200 });
+
+    const task = http.get(`${BASE_URL}/tasks/${1 + Math.floor(Math.random() * 1000)}`, { tags: { name: 'GET /tasks/{id}' } });
+    check(task, { 'task 200/404': (r) => r.status === 200 || r.status === 404 });
+}
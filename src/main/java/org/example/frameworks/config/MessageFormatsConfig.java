@@ -0,0 +1,31 @@
+package org.example.frameworks.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+
+/**
+ * TODO: Двоичные форматы ответов CBOR (application/cbor) и Smile (application/x-jackson-smile).
+ *  Клиент выбирает формат заголовком Accept, тела запросов принимаются в тех же форматах
+ *  по Content-Type. Без Accept ответы по-прежнему отдаются в JSON.
+ *  ObjectMapper строится из Jackson2ObjectMapperBuilder Spring Boot, поэтому даты, модули
+ *  и настройки spring.jackson.* одинаковы во всех форматах.
+ */
+@Configuration
+public class MessageFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
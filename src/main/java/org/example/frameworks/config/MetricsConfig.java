@@ -0,0 +1,24 @@
+package org.example.frameworks.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+
+/**
+ * TODO: Настройка метрик Micrometer.
+ *  TimedAspect превращает @Timed на классах сервисов в таймеры по каждому методу
+ *  (теги class, method, exception); количество вызовов берется из счетчика таймера.
+ *  Эндпоинты контроллеров (http.server.requests), вызовы репозиториев
+ *  (spring.data.repository.invocations), пул Hikari и статистика Hibernate
+ *  регистрируются автоконфигурацией Spring Boot Actuator и доступны на /actuator/prometheus.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.frameworks.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.frameworks.ratelimit.RateLimitInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+
+/**
+ * TODO: Подключение лимита запросов и сброса нагрузки к эндпоинтам задач, пользователей и комментариев.
+ *  Actuator (/actuator/**) не ограничивается, чтобы метрики и health оставались доступны под нагрузкой.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/tasks", "/tasks/**", "/users", "/users/**", "/comments", "/comments/**");
+    }
+}
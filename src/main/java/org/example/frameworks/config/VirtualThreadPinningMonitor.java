@@ -0,0 +1,75 @@
+package org.example.frameworks.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+
+/**
+ * TODO: Диагностика закрепления (pinning) виртуальных потоков в профиле "virtual".
+ *  Слушает событие JFR jdk.VirtualThreadPinned и пишет в лог стек вызовов, на котором
+ *  виртуальный поток удерживал несущий поток дольше порога, например блокирующий вызов JDBC
+ *  внутри synchronized. Такие места ограничивают масштабирование не хуже пула потоков.
+ */
+@Component
+@Profile("virtual")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final int MAX_FRAMES = 15;
+
+    private final Duration threshold;
+
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${diagnostics.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @PostConstruct
+    public void start() {
+        log.info("Запуск диагностики закрепления виртуальных потоков, порог: {}", threshold);
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::logPinned);
+        recordingStream.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    /**
+     * Запись события закрепления в лог.
+     * @param event событие jdk.VirtualThreadPinned
+     */
+    private void logPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        String frames = stackTrace == null ? "нет стека" : stackTrace.getFrames().stream()
+                .limit(MAX_FRAMES)
+                .map(VirtualThreadPinningMonitor::formatFrame)
+                .collect(Collectors.joining("\n\tat "));
+        log.warn("Виртуальный поток закреплен за несущим потоком {} мс:\n\tat {}",
+                event.getDuration().toMillis(), frames);
+    }
+
+    private static String formatFrame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -3,13 +3,15 @@ package org.example.frameworks.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.frameworks.dto.CommentDto;
+import org.example.frameworks.dto.CursorPageDto;
 import org.example.frameworks.services.serv.CommentServices;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/comments")
@@ -21,31 +23,48 @@ public class CommentController {
 
     /**
      * Получение комментария по ID.
+     * Поддерживает условный GET: при совпадении If-None-Match возвращается 304 без построения DTO.
      * @param id ID комментария
+     * @param request текущий запрос для проверки If-None-Match
      * @return комментарий в формате DTO
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CommentDto> getCommentById(@PathVariable Integer id) {
+    public ResponseEntity<CommentDto> getCommentById(@PathVariable Integer id, WebRequest request) {
         log.info("Получение комментария с ID: {}", id);
         try {
+            Optional<String> eTag = commentServices.getETag(id);
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                return null;
+            }
             CommentDto commentDto = commentServices.getById(id);
-            return ResponseEntity.ok(commentDto);
+            return ResponseEntity.ok().eTag(eTag.orElse(null)).body(commentDto);
         } catch (ResponseStatusException e) {
             throw e;
         }
     }
 
     /**
-     * Получение всех комментариев к задаче.
+     * Получение комментариев к задаче постранично, в порядке создания.
+     * Поддерживает условный GET: при совпадении If-None-Match возвращается 304 без загрузки комментариев.
      * @param taskId ID задачи
-     * @return список комментариев
+     * @param cursor курсор следующей страницы из предыдущего ответа, для первой страницы не передается
+     * @param size размер страницы, ограничен настройкой comments.page.max-size
+     * @param request текущий запрос для проверки If-None-Match
+     * @return страница комментариев и курсор следующей страницы
      */
 
     @GetMapping("/tasks/{taskId}")
-    public ResponseEntity<List<CommentDto>> getCommentsByTaskId(@PathVariable Integer taskId) {
-        log.info("Получение всех комментариев для задачи с ID: {}", taskId);
-        List<CommentDto> comments = commentServices.findByTaskId(taskId);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<CursorPageDto<CommentDto>> getCommentsByTaskId(@PathVariable Integer taskId,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer size,
+                                                                         WebRequest request) {
+        log.info("Получение комментариев для задачи с ID: {}", taskId);
+        Optional<String> eTag = commentServices.getTaskCommentsETag(taskId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
+        CursorPageDto<CommentDto> comments = commentServices.findPageByTaskId(taskId, cursor, size);
+        return ResponseEntity.ok().eTag(eTag.orElse(null)).body(comments);
     }
 
     /**
@@ -0,0 +1,48 @@
+package org.example.frameworks.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.services.serv.VersionConflictException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+
+/**
+ * TODO: Преобразование конфликтов оптимистической блокировки в ответ 409 Conflict (RFC 9457).
+ *  Остальные ResponseStatusException обрабатываются стандартным механизмом Spring Boot.
+ */
+@RestControllerAdvice
+@Slf4j
+public class ConflictExceptionHandler {
+
+    /**
+     * Запись по устаревшей версии: в ответ добавляется текущая версия сущности.
+     * @param e исключение сервиса
+     * @return ProblemDetail со свойством currentVersion
+     */
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ProblemDetail> handleVersionConflict(VersionConflictException e) {
+        log.info("Конфликт версий: {}", e.getReason());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getReason());
+        problem.setTitle("Version conflict");
+        problem.setProperty("currentVersion", e.getCurrentVersion());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+    }
+
+    /**
+     * Конфликт, обнаруженный Hibernate при flush (сущность изменили между чтением и записью).
+     * @param e исключение Spring ORM
+     * @return ProblemDetail без текущей версии: клиенту нужно перечитать сущность
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> handleOptimisticLock(ObjectOptimisticLockingFailureException e) {
+        log.info("Конфликт оптимистической блокировки: {} с ID {}", e.getPersistentClassName(), e.getIdentifier());
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "Данные были изменены другим запросом, перечитайте их и повторите изменение");
+        problem.setTitle("Version conflict");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+    }
+}
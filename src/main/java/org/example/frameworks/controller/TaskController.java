@@ -1,15 +1,45 @@
 package org.example.frameworks.controller;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.dto.CursorPageDto;
+import org.example.frameworks.dto.TaskDeletionDto;
+import org.example.frameworks.dto.TaskDeletionResultDto;
 import org.example.frameworks.dto.TaskDto;
+import org.example.frameworks.dto.TaskFilterDto;
+import org.example.frameworks.dto.TaskSearchHitDto;
+import org.example.frameworks.dto.TaskStatsDto;
+import org.example.frameworks.dto.TaskSummaryDto;
+import org.example.frameworks.dto.TaskTransitionDto;
+import org.example.frameworks.dto.TaskTransitionResultDto;
+import org.example.frameworks.feed.TaskChangeFeed;
 import org.example.frameworks.services.serv.TaskServices;
+import org.example.frameworks.services.serv.TaskStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * TODO: Это REST-контроллер, который обрабатывает HTTP-запросы для работы с задачами.
  */
@@ -23,33 +53,178 @@ public class TaskController {
 
     private final TaskServices taskServices;
 
+    private final TaskChangeFeed taskChangeFeed;
+
+    private final TaskStatsService taskStatsService;
+
+    /**
+     * Таймаут выгрузки NDJSON: экспорт всех задач длится дольше обычного асинхронного запроса.
+     */
+    @Value("${tasks.export.timeout:30m}")
+    private Duration exportTimeout;
+
+    /**
+     * Количество одновременных выгрузок NDJSON; каждая держит поток и соединение с БД до конца экспорта.
+     */
+    @Value("${tasks.export.max-concurrent:2}")
+    private int exportMaxConcurrent;
+
+    /**
+     * Пул выгрузок без очереди: лишняя выгрузка отклоняется сразу, а не ждет освобождения потока.
+     */
+    private ThreadPoolExecutor exportExecutor;
+
+    @PostConstruct
+    void startExportExecutor() {
+        exportExecutor = new ThreadPoolExecutor(exportMaxConcurrent, exportMaxConcurrent, 0, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), Thread.ofPlatform().name("task-export-", 0).factory());
+    }
+
+    @PreDestroy
+    void stopExportExecutor() {
+        exportExecutor.shutdownNow();
+    }
+
     /**
-     * Получение задачи по идентификатору
+     * Получение задачи по идентификатору.
+     * Поддерживает условный GET: при совпадении If-None-Match возвращается 304 без построения DTO.
      * @param id идентификатор задачи
+     * @param request текущий запрос для проверки If-None-Match
      * @return объект задачи в формате DTO
      */
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDto> getTaskById(@PathVariable Integer id) {
+    public ResponseEntity<TaskDto> getTaskById(@PathVariable Integer id, WebRequest request) {
         log.info("Получение задачи с ID: {}", id);
         try {
+            Optional<String> eTag = taskServices.getETag(id);
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                return null;
+            }
             TaskDto taskDto = taskServices.getById(id);
-            return ResponseEntity.ok(taskDto);
+            return ResponseEntity.ok().eTag(eTag.orElse(null)).body(taskDto);
         } catch (ResponseStatusException e) {
             throw e;
         }
     }
 
     /**
-     * Получение всех задач
-     * @return Список всех задач в формате DTO
+     * Получение задач постранично (keyset-пагинация по ID) с фильтрацией на стороне БД
+     * @param filter фильтр: status, priority, authors, executor, createdFrom/createdTo, updatedFrom/updatedTo (ISO-8601)
+     * @param cursor курсор следующей страницы из предыдущего ответа, для первой страницы не передается
+     * @param size размер страницы, ограничен настройкой tasks.page.max-size
+     * @return Страница задач в формате DTO и курсор следующей страницы
      */
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllTasks() {
-        log.info("Получение всех задач");
-        List<TaskDto> tasks = taskServices.getALL();
+    public ResponseEntity<CursorPageDto<TaskDto>> getAllTasks(@ModelAttribute TaskFilterDto filter,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        log.info("Получение страницы задач");
+        CursorPageDto<TaskDto> tasks = taskServices.getPage(filter, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    /**
+     * Получение кратких представлений задач постранично: id, title, status, priority, executor, updateAt.
+     * Принимает те же фильтры и курсор, что и GET /tasks, но не читает описание и комментарии.
+     * @param filter фильтр: status, priority, authors, executor, createdFrom/createdTo, updatedFrom/updatedTo (ISO-8601)
+     * @param cursor курсор следующей страницы из предыдущего ответа, для первой страницы не передается
+     * @param size размер страницы, ограничен настройкой tasks.page.max-size
+     * @return Страница кратких представлений задач и курсор следующей страницы
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<CursorPageDto<TaskSummaryDto>> getTaskSummaries(@ModelAttribute TaskFilterDto filter,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer size) {
+        log.info("Получение страницы кратких представлений задач");
+        CursorPageDto<TaskSummaryDto> tasks = taskServices.getSummaryPage(filter, cursor, size);
         return ResponseEntity.ok(tasks);
     }
 
+    /**
+     * Лента изменений задач и комментариев (Server-Sent Events) вместо периодического опроса GET /tasks.
+     * Имя события - тип изменения (TASK_UPDATED, COMMENT_CREATED, ...), id - «эпоха-номер» события в ленте.
+     * @param lastEventId id последнего полученного события для продолжения после переподключения
+     * @return поток событий; событие reset означает, что пропущенные события недоступны и задачи нужно перечитать
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToFeed(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        log.info("Подписка на ленту изменений задач");
+        return taskChangeFeed.subscribe(lastEventId);
+    }
+
+    /**
+     * Сводка по задачам для дашборда: количество по статусам, приоритетам, исполнителям и дням создания
+     * @param createdFrom нижняя граница даты создания, ISO-8601 (включительно)
+     * @param createdTo верхняя граница даты создания, ISO-8601 (исключительно)
+     * @return Сводка, рассчитанная не раньше чем tasks.stats.cache-ttl назад
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<TaskStatsDto> getTaskStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo) {
+        log.info("Получение сводки по задачам");
+        try {
+            TaskStatsDto stats = taskStatsService.getStats(createdFrom, createdTo);
+            return ResponseEntity.ok(stats);
+        } catch (ResponseStatusException e) {
+            throw e;
+        }
+    }
+
+    /**
+     * Полнотекстовый поиск задач по заголовку, описанию и тексту комментариев
+     * @param q поисковая строка: слова, "фразы в кавычках", -исключения, or
+     * @param page номер страницы с нуля
+     * @param size размер страницы, ограничен настройкой tasks.page.max-size
+     * @return Найденные задачи в кратком представлении в порядке убывания релевантности
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<TaskSearchHitDto>> searchTasks(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "0") int page,
+                                                              @RequestParam(required = false) Integer size) {
+        log.info("Поиск задач");
+        try {
+            List<TaskSearchHitDto> hits = taskServices.search(q, page, size);
+            return ResponseEntity.ok(hits);
+        } catch (ResponseStatusException e) {
+            throw e;
+        }
+    }
+
+    /**
+     * Выгрузка всех задач с комментариями в формате NDJSON.
+     * Ответ пишется потоком по мере чтения из БД, без сборки всего списка в памяти.
+     * Экспорт выполняется в собственном пуле на tasks.export.max-concurrent потоков со своим таймаутом
+     * tasks.export.timeout, поэтому долгие выгрузки не занимают applicationTaskExecutor; остальные
+     * асинхронные запросы сохраняют таймаут spring.mvc.async.request-timeout.
+     * @return Поток строк JSON, по одной задаче на строку
+     * @throws ResponseStatusException 503, если все потоки выгрузки заняты
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> exportTasks() {
+        log.info("Экспорт всех задач");
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(exportTimeout.toMillis());
+        try {
+            exportExecutor.execute(() -> {
+                try (OutputStream out = new EmitterOutputStream(emitter)) {
+                    taskServices.exportNdjson(out);
+                } catch (IOException | RuntimeException e) {
+                    log.info("Экспорт задач прерван: {}", e.getMessage());
+                    emitter.completeWithError(e);
+                    return;
+                }
+                emitter.complete();
+            });
+        } catch (RejectedExecutionException e) {
+            log.info("Экспорт задач отклонен: выполняется {} выгрузок", exportMaxConcurrent);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Достигнут предел одновременных выгрузок, повторите позже");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
     /**
      * Создание новой задачи
      * @param taskDto Объект задачи для создания
@@ -68,6 +243,55 @@ public class TaskController {
 
     }
 
+    /**
+     * Пакетное создание задач (с вложенными комментариями) одним запросом
+     * @param taskDtos Список задач для создания
+     * @return Созданные задачи с присвоенными ID
+     */
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ResponseEntity<List<TaskDto>> createTasks(@RequestBody List<TaskDto> taskDtos) {
+        log.info("Пакетное создание задач");
+        try {
+            List<TaskDto> createdTasks = taskServices.createBatch(taskDtos);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdTasks);
+        } catch (ResponseStatusException e) {
+            throw e;
+        }
+    }
+
+    /**
+     * Массовое изменение статуса, приоритета и признака выполнения задач одним UPDATE
+     * @param transitionDto задачи (ids или filter) и новые значения status, priority, completed
+     * @return Количество найденных, измененных и пропущенных из-за недопустимого перехода задач
+     */
+    @PostMapping("/transitions")
+    public ResponseEntity<TaskTransitionResultDto> transitionTasks(@RequestBody TaskTransitionDto transitionDto) {
+        log.info("Массовое изменение задач");
+        try {
+            TaskTransitionResultDto result = taskServices.transition(transitionDto);
+            return ResponseEntity.ok(result);
+        } catch (ResponseStatusException e) {
+            throw e;
+        }
+    }
+
+    /**
+     * Массовое удаление задач по списку ID или фильтру вместе с их комментариями
+     * @param deletionDto задачи: ids или filter
+     * @return Количество удаленных и не найденных задач
+     */
+    @PostMapping("/deletions")
+    public ResponseEntity<TaskDeletionResultDto> deleteTasks(@RequestBody TaskDeletionDto deletionDto) {
+        log.info("Массовое удаление задач");
+        try {
+            TaskDeletionResultDto result = taskServices.deleteBatch(deletionDto);
+            return ResponseEntity.ok(result);
+        } catch (ResponseStatusException e) {
+            throw e;
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TaskDto> updateTask(@PathVariable Integer id, @RequestBody TaskDto taskDto) {
         log.info("Обновление задачи с ID: {}", id);
@@ -79,6 +303,22 @@ public class TaskController {
         }
     }
 
+    /**
+     * Частичное обновление задачи: изменяются только переданные поля
+     * @param id Идентификатор задачи
+     * @param taskDto Изменяемые поля задачи (title, description, completed, status, priority, authors, executor)
+     */
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patchTask(@PathVariable Integer id, @RequestBody TaskDto taskDto) {
+        log.info("Частичное обновление задачи с ID: {}", id);
+        try {
+            taskServices.patch(id, taskDto);
+        } catch (ResponseStatusException e) {
+            throw e;
+        }
+    }
+
     /**
      * Удаление задачи по идентификатору
      * @param id Идентификатор задачи для удаления
@@ -93,4 +333,30 @@ public class TaskController {
             throw e;
         }
     }
+
+    /**
+     * Поток, который копит записанные байты и отправляет их в emitter одной частью при flush.
+     * Экспорт сбрасывает поток после каждой порции задач.
+     */
+    private static class EmitterOutputStream extends ByteArrayOutputStream {
+
+        private final ResponseBodyEmitter emitter;
+
+        private EmitterOutputStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (size() > 0) {
+                emitter.send(toByteArray(), MediaType.APPLICATION_NDJSON);
+                reset();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
 }
@@ -3,13 +3,16 @@ package org.example.frameworks.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.frameworks.dto.UserDto;
+import org.example.frameworks.dto.UserTaskStatsDto;
 import org.example.frameworks.services.serv.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
+import java.util.Optional;
 
 
 /**
@@ -48,16 +51,22 @@ public class UserController {
 
     /**
      * Получение пользователя по ID.
+     * Поддерживает условный GET: при совпадении If-None-Match возвращается 304 без построения DTO.
      *
      * @param id ID пользователя
+     * @param request Текущий запрос для проверки If-None-Match
      * @return Пользователь с указанным ID
      */
     @GetMapping("/{id}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Integer id) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Integer id, WebRequest request) {
         log.info("Получение пользователя с ID: {}", id);
         try {
+            Optional<String> eTag = userService.getETag(id);
+            if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+                return null;
+            }
             UserDto userDto = userService.getById(id);
-            return ResponseEntity.ok(userDto);
+            return ResponseEntity.ok().eTag(eTag.orElse(null)).body(userDto);
         } catch (ResponseStatusException e) {
             throw e;
         }
@@ -75,6 +84,24 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Получение нагрузки пользователя: количество задач по статусам и приоритетам
+     * как исполнителя и как автора.
+     *
+     * @param id ID пользователя
+     * @return Счетчики задач пользователя
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<UserTaskStatsDto> getUserTaskStats(@PathVariable Integer id) {
+        log.info("Получение статистики задач пользователя с ID: {}", id);
+        try {
+            UserTaskStatsDto stats = userService.getTaskStats(id);
+            return ResponseEntity.ok(stats);
+        } catch (ResponseStatusException e) {
+            throw e;
+        }
+    }
+
     /**
      * Обновление существующего пользователя.
      *
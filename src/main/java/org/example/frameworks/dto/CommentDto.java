@@ -18,6 +18,7 @@ public class CommentDto {
     private Integer taskId; // ID задачи, к которой относится комментарий.
     private LocalDateTime createdAt; // Временная метка создания комментария.
     private LocalDateTime updateAt; // Временная метка последнего обновления комментария.
+    private Long version; // Версия комментария для оптимистической блокировки.
 
 
 }
@@ -0,0 +1,23 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+
+/**
+ * TODO: Страница результатов при курсорной (keyset) пагинации.
+ *  Клиент передает nextCursor в следующий запрос, пока он не станет null.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class CursorPageDto<T> {
+
+    private List<T> items; // Элементы текущей страницы
+    private String nextCursor; // Курсор следующей страницы, null если страница последняя
+    private Integer size; // Запрошенный размер страницы
+}
@@ -0,0 +1,21 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+
+/**
+ * TODO: Запрос массового удаления задач: задачи выбираются списком ID или фильтром.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskDeletionDto {
+
+    private List<Integer> ids; // ID задач; взаимоисключающе с filter
+    private TaskFilterDto filter; // Фильтр задач; взаимоисключающе с ids
+}
@@ -0,0 +1,19 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+
+/**
+ * TODO: Результат массового удаления задач.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskDeletionResultDto {
+
+    private int deleted; // Удалено задач
+    private int notFound; // Не найдено задач из списка ID
+}
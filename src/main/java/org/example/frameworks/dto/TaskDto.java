@@ -30,6 +30,8 @@ public class TaskDto {
     private String status; // Статус задачи
     private String priority; // Приоритет задачи
     private List<CommentDto> comments = List.of();
+    private Long commentCount; // Количество комментариев; comments заполняется только при экспорте, иначе комментарии читаются постранично
     private LocalDateTime createdAt; // Временная метка создания задачи
     private LocalDateTime updateAt; // Временная метка последнего обновления задачи
+    private Long version; // Версия задачи; если передана при обновлении, устаревшая запись отклоняется с 409
 }
@@ -0,0 +1,37 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * TODO: Параметры фильтрации списка задач, передаются в query string GET /tasks.
+ *  Все поля необязательные; нижние границы дат включительно, верхние - исключительно.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskFilterDto {
+
+    private String status; // Статус задачи
+    private String priority; // Приоритет задачи
+    private String authors; // username автора
+    private String executor; // username исполнителя
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom; // Создана не раньше
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo; // Создана раньше
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedFrom; // Обновлена не раньше
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime updatedTo; // Обновлена раньше
+}
@@ -0,0 +1,19 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+
+/**
+ * TODO: Найденная задача в кратком представлении вместе с релевантностью.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskSearchHitDto {
+
+    private TaskSummaryDto task; // Краткое представление задачи
+    private Double rank; // Релевантность: совпадения в заголовке весят больше описания и комментариев
+}
@@ -0,0 +1,30 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+
+/**
+ * TODO: Сводка по задачам для дашборда. Числа считаются агрегатными запросами
+ *  и кэшируются на tasks.stats.cache-ttl, время расчета - в generatedAt.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskStatsDto {
+
+    private long total; // Всего задач в диапазоне
+    private Map<String, Long> byStatus; // Задачи по статусам
+    private Map<String, Long> byPriority; // Задачи по приоритетам, NONE - без приоритета
+    private Map<String, Long> byExecutor; // Задачи по username исполнителя, NONE - без исполнителя
+    private Map<LocalDate, Long> createdPerDay; // Созданные задачи по дням
+    private LocalDateTime createdFrom; // Нижняя граница даты создания (включительно)
+    private LocalDateTime createdTo; // Верхняя граница даты создания (исключительно)
+    private LocalDateTime generatedAt; // Время расчета сводки
+}
@@ -0,0 +1,25 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * TODO: Краткое представление задачи для списков: без описания и комментариев.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskSummaryDto {
+
+    private Integer id; // Уникальный идентификатор задачи
+    private String title; // Заголовок задачи
+    private String status; // Статус задачи
+    private String priority; // Приоритет задачи
+    private String executor; // username исполнителя
+    private LocalDateTime updateAt; // Временная метка последнего обновления задачи
+}
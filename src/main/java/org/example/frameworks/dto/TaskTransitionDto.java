@@ -0,0 +1,25 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+
+/**
+ * TODO: Запрос массового изменения задач: задачи выбираются списком ID или фильтром,
+ *  изменяются только переданные поля status, priority, completed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskTransitionDto {
+
+    private List<Integer> ids; // ID задач; взаимоисключающе с filter
+    private TaskFilterDto filter; // Фильтр задач; взаимоисключающе с ids
+    private String status; // Новый статус задачи
+    private String priority; // Новый приоритет задачи
+    private Boolean completed; // Новый признак выполнения; по умолчанию true для статуса COMPLETED и false для остальных статусов
+}
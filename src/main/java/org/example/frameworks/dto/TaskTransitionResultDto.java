@@ -0,0 +1,21 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+
+/**
+ * TODO: Результат массового изменения задач.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class TaskTransitionResultDto {
+
+    private int matched; // Найдено задач по ID или фильтру
+    private int updated; // Изменено задач
+    private int rejected; // Пропущено задач с недопустимым переходом статуса
+    private int notFound; // Не найдено задач из списка ID
+}
@@ -18,4 +18,5 @@ public class UserDto {
     private String password;
     private LocalDateTime createdAt;
     private LocalDateTime updateAt;
+    private Long version;
 }
@@ -0,0 +1,27 @@
+package org.example.frameworks.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+
+/**
+ * TODO: Нагрузка пользователя: количество задач, где он исполнитель и где автор,
+ *  в разрезе статусов и приоритетов.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class UserTaskStatsDto {
+
+    private Integer userId; // ID пользователя
+    private long executorTotal; // Задач, где пользователь исполнитель
+    private Map<String, Long> executorByStatus; // Задачи исполнителя по статусам
+    private Map<String, Long> executorByPriority; // Задачи исполнителя по приоритетам
+    private long authorTotal; // Задач, где пользователь автор
+    private Map<String, Long> authorByStatus; // Задачи автора по статусам
+    private Map<String, Long> authorByPriority; // Задачи автора по приоритетам
+}
@@ -5,12 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @NoArgsConstructor
@@ -22,7 +28,8 @@ public class Comment {
      * Генерируется автоматически при создании нового комментария.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = 50)
     @Column(name = "id")
     private Integer id;
 
@@ -35,10 +42,11 @@ public class Comment {
 
     /**
      * ID задачи, к которой относится комментарий.
-     * Обеспечивает связь с сущностью Task.
+     * Обеспечивает связь с сущностью Task. Удаляется вместе с задачей внешним ключом ON DELETE CASCADE.
      */
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Task task;
 
     /**
@@ -56,4 +64,12 @@ public class Comment {
     @CreationTimestamp
     @Column(name = "update_at", nullable = false)
     private LocalDateTime updateAt;
+
+    /**
+     * Версия комментария для оптимистической блокировки.
+     * Увеличивается Hibernate при каждом UPDATE; устаревшая запись завершается конфликтом.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -7,6 +7,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.example.frameworks.entity.enumes.TaskPriority;
 import org.example.frameworks.entity.enumes.TaskStatus;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,9 +21,14 @@ import java.util.List;
 /**
  * TODO: Этот класс является частью архитектуры приложения и используется для хранения
  *  данных о задачах в базе данных, обеспечивая их структурированное хранение и доступ к ним через JPA.
+ *  UPDATE формируется только по измененным колонкам (@DynamicUpdate).
+ *  Кэшируется в кэше второго уровня Hibernate, регион настраивается в application.conf.
  */
 @Entity
 @Table(name = "task")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @NoArgsConstructor
@@ -27,9 +38,12 @@ public class Task {
     /**
      * Уникальный идентификатор задачи.
      * Генерируется автоматически при создании новой задачи.
+     * Берется из последовательности task_seq блоками по 50 (pooled optimizer),
+     * что позволяет Hibernate отправлять INSERT пакетами JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
+    @SequenceGenerator(name = "task_seq", sequenceName = "task_seq", allocationSize = 50)
     @Column(name = "id")
     private Integer id;
 
@@ -71,12 +85,24 @@ public class Task {
     @Column(name = "priority")
     private TaskPriority priority;
 
-    @ManyToOne
+    /**
+     * Автор задачи.
+     * Загружается лениво: чтения задач берут только username автора через left join
+     * в конструкторной проекции TaskRow (TaskRepository), не загружая сущность User.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "authors_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
     private User authors;
 
-    @ManyToOne
+    /**
+     * Исполнитель задачи.
+     * Загружается лениво: чтения задач берут только username исполнителя через left join
+     * в конструкторных проекциях TaskRow и TaskSummaryRow (TaskRepository), не загружая сущность User.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "executor_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
     private User executor;
 
     /**
@@ -93,6 +119,21 @@ public class Task {
     @Column(name = "update_at", nullable = false)
     private LocalDateTime updateAt;
 
-    @OneToMany(mappedBy = "task", cascade = CascadeType.ALL)
+    /**
+     * Комментарии задачи.
+     * Для страницы задач коллекции инициализируются одним запросом с IN по ID задач.
+     * Сохраняются вместе с задачей, а удаляются внешним ключом ON DELETE CASCADE в СУБД.
+     */
+    @OneToMany(mappedBy = "task", cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<Comment> comments;
+
+    /**
+     * Версия задачи для оптимистической блокировки.
+     * Увеличивается Hibernate при каждом UPDATE; устаревшая запись завершается конфликтом.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -5,11 +5,17 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +27,8 @@ public class User {
      * Генерируется автоматически при создании нового пользователя.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @Column(name = "id")
     private Integer id;
 
@@ -32,8 +39,9 @@ public class User {
     @Column(name = "username", nullable = false, unique = true)
     private String username;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "task_id")
+    @OnDelete(action = OnDeleteAction.SET_NULL)
     private Task task;
 
     @Column(name = "email", nullable = false, unique = true)
@@ -47,4 +55,12 @@ public class User {
 
     @Column(name = "update_at", nullable = false)
     private LocalDateTime updatedAt;
+
+    /**
+     * Версия пользователя для оптимистической блокировки.
+     * Увеличивается Hibernate при каждом UPDATE; устаревшая запись завершается конфликтом.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
 }
@@ -47,4 +47,18 @@ public enum TaskStatus {
     public String getDescription() {
         return description;
     }
+
+    /**
+     * Проверка допустимости перехода в другой статус.
+     * Из ожидания и из работы можно перейти в любой статус, завершенную задачу можно
+     * только вернуть в работу. Переход в тот же статус допустим всегда.
+     * @param target новый статус
+     * @return true, если переход допустим
+     */
+    public boolean canTransitionTo(TaskStatus target) {
+        return this == target || switch (this) {
+            case WAITING, IN_PROGRESS -> true;
+            case COMPLETED -> target == IN_PROGRESS;
+        };
+    }
 }
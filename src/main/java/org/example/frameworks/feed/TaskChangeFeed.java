@@ -0,0 +1,342 @@
+package org.example.frameworks.feed;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.outbox.OutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+/**
+ * TODO: Лента изменений задач и комментариев для подписчиков Server-Sent Events.
+ *  События приходят от OutboxRelay после фиксации пачки outbox, то есть в порядке событий
+ *  по задаче, и получают сквозной номер ленты. id события SSE - «эпоха-номер», где эпоха
+ *  уникальна для запуска сервиса: номера начинаются заново после перезапуска, и Last-Event-ID
+ *  из другой эпохи приводит к событию reset, а не к отправке чужих событий.
+ *  Последние feed.buffer-size событий хранятся в кольцевом буфере для возобновления;
+ *  если клиент отстал больше, он получает событие reset и должен перечитать задачи.
+ *  У каждого подписчика своя ограниченная очередь; отправка запускается в собственном виртуальном
+ *  потоке ленты только когда в очереди есть события, поэтому общий applicationTaskExecutor не занят
+ *  блокирующей записью в медленные соединения, а поток не ждет между событиями.
+ *  Подписчик, переполнивший очередь или не завершивший отправку за feed.send-timeout, отключается,
+ *  не задерживая ретранслятор и остальных подписчиков.
+ */
+@Component
+@Slf4j
+public class TaskChangeFeed {
+
+    /**
+     * Имя события, которое требует от клиента перечитать задачи: пропущенных событий уже нет в буфере.
+     */
+    private static final String RESET_EVENT = "reset";
+
+    private final FeedEvent[] buffer;
+
+    private final int subscriberQueueSize;
+
+    private final Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final Duration sendTimeout;
+
+    /**
+     * Отправка событий подписчикам: виртуальный поток на каждую запущенную отправку,
+     * заблокированная запись одного клиента не занимает потоки других.
+     */
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("feed-sender-", 0).factory());
+
+    /**
+     * Эпоха ленты: время запуска сервиса в base36, отличает номера событий разных запусков.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    /**
+     * Номер следующего события ленты; номера начинаются с 1.
+     */
+    private long nextSequence = 1;
+
+    public TaskChangeFeed(@Value("${feed.buffer-size:10000}") int bufferSize,
+                          @Value("${feed.subscriber-queue-size:1000}") int subscriberQueueSize,
+                          @Value("${feed.timeout:30m}") Duration timeout,
+                          @Value("${feed.send-timeout:10s}") Duration sendTimeout) {
+        this.buffer = new FeedEvent[bufferSize];
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+    }
+
+    /**
+     * Добавление опубликованных событий outbox в ленту и раздача подписчикам.
+     * Не блокируется на отправке: события только кладутся в очереди подписчиков.
+     * @param events события в порядке публикации
+     */
+    public synchronized void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            FeedEvent feedEvent = new FeedEvent(nextSequence, event);
+            buffer[(int) (nextSequence % buffer.length)] = feedEvent;
+            nextSequence++;
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(feedEvent);
+            }
+        }
+    }
+
+    /**
+     * Подписка на ленту.
+     * @param lastEventId id последнего полученного клиентом события или null для новой подписки
+     * @return SSE-поток событий
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Long lastSequence = parseSequence(lastEventId);
+        Subscriber subscriber;
+        synchronized (this) {
+            long oldest = Math.max(1, nextSequence - buffer.length);
+            long from = lastSequence == null ? nextSequence : lastSequence + 1;
+            subscriber = new Subscriber(emitter, subscriberQueueSize + (int) Math.max(0, nextSequence - from));
+            if ((lastEventId != null && lastSequence == null) || from < oldest || from > nextSequence) {
+                // id из прошлого запуска сервиса, некорректный id или события уже вытеснены из буфера
+                subscriber.offer(Subscriber.RESET);
+            } else {
+                for (long sequence = from; sequence < nextSequence; sequence++) {
+                    subscriber.offer(buffer[(int) (sequence % buffer.length)]);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        log.info("Новый подписчик ленты изменений, Last-Event-ID: {}, подписчиков: {}", lastEventId, subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Периодический комментарий SSE: держит соединение открытым через прокси
+     * и позволяет обнаружить отключившихся клиентов.
+     */
+    @Scheduled(fixedDelayString = "${feed.heartbeat-interval:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(Subscriber.HEARTBEAT);
+        }
+    }
+
+    /**
+     * Отключение подписчиков, чья отправка заблокирована дольше feed.send-timeout:
+     * клиент перестал читать, а TCP-буфер соединения заполнен.
+     */
+    @Scheduled(fixedDelayString = "${feed.send-check-interval:1000}")
+    public void dropStalledSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                log.info("Отправка подписчику ленты изменений заблокирована дольше {}, подписчик отключен", sendTimeout);
+                subscriber.abort();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(Subscriber::close);
+        senders.shutdown();
+    }
+
+    /**
+     * Разбор Last-Event-ID вида «эпоха-номер».
+     * @param lastEventId id события из заголовка или null
+     * @return номер события текущей эпохи или null, если id не передан, некорректен или из другой эпохи
+     */
+    private Long parseSequence(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !epoch.equals(lastEventId.substring(0, separator))) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Событие ленты со сквозным номером.
+     * @param sequence номер события в ленте, отдается клиенту в id SSE вместе с эпохой
+     * @param event событие outbox
+     */
+    record FeedEvent(long sequence, OutboxEvent event) {
+    }
+
+    /**
+     * Подписчик с ограниченной очередью неотправленных событий.
+     */
+    private final class Subscriber {
+
+        private static final Object HEARTBEAT = new Object();
+
+        private static final Object RESET = new Object();
+
+        private static final Object CLOSE = new Object();
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<Object> queue;
+
+        /**
+         * Признак запущенной отправки: очередь подписчика разбирает не больше одной задачи.
+         */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private volatile boolean closed;
+
+        /**
+         * Поток текущей отправки или null, если отправка не запущена.
+         */
+        private volatile Thread sender;
+
+        /**
+         * Время начала текущей записи в соединение (System.nanoTime) или 0 вне записи.
+         */
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new LinkedBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Постановка события в очередь без ожидания. Переполнение означает, что клиент
+         * не успевает читать ленту: он отключается и переподключится с Last-Event-ID.
+         */
+        private void offer(Object item) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                log.info("Подписчик ленты изменений не успевает читать события и будет отключен");
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            queue.offer(CLOSE);
+            scheduleDrain();
+        }
+
+        private boolean isStalled(long now) {
+            long startedAt = sendStartedAt;
+            return startedAt != 0 && now - startedAt > sendTimeout.toNanos();
+        }
+
+        /**
+         * Отключение подписчика с заблокированной отправкой. emitter завершается в отдельном потоке:
+         * SseEmitter не дает завершить поток, пока идет запись, а проверка не должна ее ждать.
+         */
+        private void abort() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+            Thread blocked = sender;
+            if (blocked != null) {
+                blocked.interrupt();
+            }
+            senders.execute(() -> emitter.completeWithError(new IOException("Превышено время отправки события")));
+        }
+
+        /**
+         * Отправка накопленных событий из очереди. Завершается, когда очередь пуста;
+         * следующее событие снова запускает отправку через scheduleDrain.
+         */
+        private void drain() {
+            sender = Thread.currentThread();
+            try {
+                drainQueue();
+            } finally {
+                sender = null;
+            }
+        }
+
+        private void drainQueue() {
+            do {
+                Object item;
+                while ((item = queue.poll()) != null) {
+                    if (!send(item)) {
+                        return;
+                    }
+                }
+                draining.set(false);
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        /**
+         * Отправка одного элемента очереди.
+         * @return false, если подписка завершена и отправлять больше нечего
+         */
+        private boolean send(Object item) {
+            try {
+                if (item == CLOSE) {
+                    emitter.complete();
+                    return false;
+                }
+                sendStartedAt = System.nanoTime();
+                if (item == HEARTBEAT) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else if (item == RESET) {
+                    emitter.send(SseEmitter.event().name(RESET_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    FeedEvent feedEvent = (FeedEvent) item;
+                    emitter.send(SseEmitter.event()
+                            .id(epoch + "-" + feedEvent.sequence())
+                            .name(feedEvent.event().eventType().name())
+                            .data(feedEvent.event(), MediaType.APPLICATION_JSON));
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.info("Подписчик ленты изменений отключился: {}", e.getMessage());
+                closed = true;
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+    }
+}
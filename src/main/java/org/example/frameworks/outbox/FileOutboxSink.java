@@ -0,0 +1,51 @@
+package org.example.frameworks.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+
+/**
+ * TODO: Получатель событий outbox, дописывающий их в локальный файл в формате NDJSON.
+ *  Каждая пачка записывается и синхронизируется с диском до подтверждения ретранслятору,
+ *  поэтому удаленные из outbox события не теряются при перезапуске. Используется по умолчанию.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "file", matchIfMissing = true)
+@Slf4j
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+
+    private final ObjectMapper objectMapper;
+
+    public FileOutboxSink(@Value("${outbox.sink.file.path:outbox-events.ndjson}") Path path,
+                          ObjectMapper objectMapper) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        log.info("События outbox записываются в файл {}", path.toAbsolutePath());
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+        try (OutputStream out = Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+                StandardOpenOption.DSYNC)) {
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
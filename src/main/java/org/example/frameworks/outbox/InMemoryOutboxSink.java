@@ -0,0 +1,54 @@
+package org.example.frameworks.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+
+/**
+ * TODO: Получатель событий outbox в памяти для тестов и локальной разработки.
+ *  Хранит последние outbox.sink.memory.capacity событий: при перезапуске или переполнении события
+ *  теряются, поэтому включается только явно (профиль dev, тесты).
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink.type", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+
+    private final Deque<OutboxEvent> events = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(@Value("${outbox.sink.memory.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        for (OutboxEvent event : batch) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * Получение опубликованных событий.
+     * @return копия сохраненных событий в порядке публикации
+     */
+    public synchronized List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    /**
+     * Очистка сохраненных событий.
+     */
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.frameworks.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * TODO: Событие из таблицы outbox_event.
+ *
+ * @param id порядковый номер события; для одной задачи номера растут в порядке фиксации транзакций
+ * @param taskId ID задачи, к которой относится событие (для комментариев - задача комментария)
+ * @param eventType тип события
+ * @param payload JSON с данными события
+ * @param createdAt время записи события
+ */
+public record OutboxEvent(long id,
+                          Integer taskId,
+                          OutboxEventType eventType,
+                          @JsonRawValue String payload,
+                          LocalDateTime createdAt) {
+}
@@ -0,0 +1,20 @@
+package org.example.frameworks.outbox;
+
+
+/**
+ * TODO: Типы событий изменения задач и комментариев, записываемых в outbox.
+ */
+public enum OutboxEventType {
+
+    TASK_CREATED,
+
+    TASK_UPDATED,
+
+    TASK_DELETED,
+
+    COMMENT_CREATED,
+
+    COMMENT_UPDATED,
+
+    COMMENT_DELETED
+}
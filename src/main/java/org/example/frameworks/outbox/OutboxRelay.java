@@ -0,0 +1,98 @@
+package org.example.frameworks.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.feed.TaskChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+
+/**
+ * TODO: Фоновый ретранслятор outbox: вычитывает события пачками в порядке id, передает их
+ *  OutboxSink и удаляет опубликованные в той же транзакции. Удаляются именно опубликованные id:
+ *  событие с меньшим id из еще не зафиксированной транзакции попадет в следующую пачку.
+ *  Пачка читается с SELECT ... FOR UPDATE, поэтому несколько экземпляров сервиса
+ *  обрабатывают outbox по очереди и не нарушают порядок событий.
+ *  Если публикация или удаление не удались, транзакция откатывается и пачка будет
+ *  отправлена снова (at-least-once).
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxRelay {
+
+    private static final String SELECT_BATCH = "select id, task_id, event_type, payload, created_at " +
+            "from outbox_event order by id limit ? for update";
+
+    private static final String DELETE_EVENT = "delete from outbox_event where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxSink outboxSink;
+
+    private final TaskChangeFeed taskChangeFeed;
+
+    private final int batchSize;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       OutboxSink outboxSink,
+                       TaskChangeFeed taskChangeFeed,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.outboxSink = outboxSink;
+        this.taskChangeFeed = taskChangeFeed;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Публикация накопленных событий: пачки отправляются подряд, пока outbox не опустеет.
+     * После фиксации каждой пачки события передаются в ленту изменений для SSE-подписчиков.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:1000}")
+    public void relay() {
+        try {
+            List<OutboxEvent> published;
+            do {
+                published = transactionTemplate.execute(status -> relayBatch());
+                taskChangeFeed.publish(published);
+            } while (published.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Ошибка публикации событий outbox, пачка будет отправлена повторно", e);
+        }
+    }
+
+    /**
+     * Публикация одной пачки событий в текущей транзакции.
+     * @return опубликованные события
+     */
+    private List<OutboxEvent> relayBatch() {
+        List<OutboxEvent> events = jdbcTemplate.query(SELECT_BATCH, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"),
+                rs.getInt("task_id"),
+                OutboxEventType.valueOf(rs.getString("event_type")),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toLocalDateTime()), batchSize);
+        if (events.isEmpty()) {
+            return events;
+        }
+        try {
+            outboxSink.publish(events);
+        } catch (Exception e) {
+            throw new IllegalStateException("Получатель не принял пачку событий outbox", e);
+        }
+        jdbcTemplate.batchUpdate(DELETE_EVENT, events.stream()
+                .map(event -> new Object[]{event.id()})
+                .toList());
+        log.info("Опубликовано событий outbox: {}", events.size());
+        return events;
+    }
+}
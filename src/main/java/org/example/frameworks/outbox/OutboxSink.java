@@ -0,0 +1,20 @@
+package org.example.frameworks.outbox;
+
+import java.util.List;
+
+
+/**
+ * TODO: Получатель событий из outbox.
+ *  Вызывается ретранслятором с пачкой событий в порядке id. Если метод бросает исключение,
+ *  пачка остается в outbox и будет отправлена повторно, поэтому получатель должен
+ *  переносить повторную доставку (at-least-once).
+ */
+public interface OutboxSink {
+
+    /**
+     * Публикация пачки событий.
+     * @param events события в порядке возрастания id
+     * @throws Exception если пачку не удалось опубликовать
+     */
+    void publish(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,85 @@
+package org.example.frameworks.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * TODO: Запись событий изменения в таблицу outbox_event в транзакции самого изменения.
+ *  Событие фиксируется вместе с изменением или не фиксируется вовсе, а публикует его
+ *  OutboxRelay в фоне, поэтому путь записи не ждет получателей.
+ *  Порядок по задаче: перед записью события строка задачи блокируется (SELECT ... FOR UPDATE),
+ *  а id события берется из последовательности уже под блокировкой. Поэтому события одной
+ *  задачи получают возрастающие id в порядке фиксации транзакций.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxWriter {
+
+    private static final String INSERT_EVENT = "insert into outbox_event (id, task_id, event_type, payload, created_at) " +
+            "values (nextval('outbox_event_seq'), ?, ?, ?, ?)";
+
+    private static final String LOCK_TASK = "select id from task where id = ? for update";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Запись события по существующей задаче.
+     * @param type тип события
+     * @param taskId ID задачи
+     * @param payload данные события, сериализуются в JSON
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Integer taskId, Object payload) {
+        jdbcTemplate.queryForList(LOCK_TASK, Integer.class, taskId);
+        jdbcTemplate.update(INSERT_EVENT, taskId, type.name(), toJson(payload), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Пакетная запись событий по только что созданным задачам.
+     * Блокировка не нужна: до фиксации транзакции другие транзакции эти задачи не видят.
+     * @param type тип события
+     * @param payloads данные событий по ID задач, в порядке записи
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendCreated(OutboxEventType type, Map<Integer, ?> payloads) {
+        appendLocked(type, payloads);
+    }
+
+    /**
+     * Пакетная запись событий по задачам, строки которых уже заблокированы текущей транзакцией
+     * (например, массовым изменением после SELECT ... FOR UPDATE).
+     * @param type тип события
+     * @param payloads данные событий по ID задач, в порядке записи
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendLocked(OutboxEventType type, Map<Integer, ?> payloads) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(payloads.size());
+        payloads.forEach((taskId, payload) -> rows.add(new Object[]{taskId, type.name(), toJson(payload), now}));
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие outbox", e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.frameworks.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * TODO: Ограничение частоты запросов по клиенту и эндпоинту.
+ *  У каждой пары (клиент, эндпоинт) свое ведро, поэтому интеграция, опрашивающая GET /tasks,
+ *  расходует только свой лимит. Эндпоинт - это «Контроллер.метод», лимиты для отдельных
+ *  эндпоинтов задаются в rate-limit.endpoints в виде «Контроллер.метод=capacity/refillPerSecond»
+ *  через запятую, остальные получают rate-limit.default.*.
+ *  Ведра хранятся в Caffeine: не больше rate-limit.max-clients, неиспользуемые удаляются
+ *  через rate-limit.idle-timeout (к этому времени ведро все равно полностью пополнено).
+ */
+@Component
+@Slf4j
+public class ClientRateLimiter {
+
+    private final Limit defaultLimit;
+
+    private final Map<String, Limit> endpointLimits;
+
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public ClientRateLimiter(@Value("${rate-limit.default.capacity:100}") int defaultCapacity,
+                             @Value("${rate-limit.default.refill-per-second:50}") double defaultRefillPerSecond,
+                             @Value("${rate-limit.endpoints:}") String endpoints,
+                             @Value("${rate-limit.max-clients:100000}") long maxClients,
+                             @Value("${rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this.defaultLimit = new Limit(defaultCapacity, defaultRefillPerSecond);
+        this.endpointLimits = parseLimits(endpoints);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        log.info("Лимит запросов по умолчанию: {}, для эндпоинтов: {}", defaultLimit, endpointLimits);
+    }
+
+    /**
+     * Попытка пропустить запрос клиента к эндпоинту.
+     * @param clientId идентификатор клиента
+     * @param endpoint эндпоинт в виде «Контроллер.метод»
+     * @return 0, если запрос пропущен, иначе время до следующей попытки, нс
+     */
+    public long tryAcquire(String clientId, String endpoint) {
+        Limit limit = endpointLimits.getOrDefault(endpoint, defaultLimit);
+        TokenBucket bucket = buckets.get(new BucketKey(clientId, endpoint),
+                key -> new TokenBucket(limit.capacity(), limit.refillPerSecond()));
+        return bucket.tryAcquire(System.nanoTime());
+    }
+
+    private static Map<String, Limit> parseLimits(String endpoints) {
+        Map<String, Limit> limits = new HashMap<>();
+        for (String entry : endpoints.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] endpointAndLimit = entry.trim().split("=");
+            String[] capacityAndRate = endpointAndLimit.length == 2 ? endpointAndLimit[1].split("/") : new String[0];
+            if (capacityAndRate.length != 2) {
+                throw new IllegalArgumentException("Неверный формат лимита в rate-limit.endpoints: " + entry);
+            }
+            limits.put(endpointAndLimit[0].trim(), new Limit(Integer.parseInt(capacityAndRate[0].trim()),
+                    Double.parseDouble(capacityAndRate[1].trim())));
+        }
+        return limits;
+    }
+
+    /**
+     * Лимит эндпоинта.
+     * @param capacity размер пачки запросов подряд
+     * @param refillPerSecond устойчивая частота запросов в секунду
+     */
+    private record Limit(int capacity, double refillPerSecond) {
+
+        private Limit {
+            if (capacity < 1 || refillPerSecond <= 0) {
+                throw new IllegalArgumentException("Лимит должен быть положительным: " + capacity + "/" + refillPerSecond);
+            }
+        }
+    }
+
+    private record BucketKey(String clientId, String endpoint) {
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.frameworks.ratelimit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * TODO: Сброс нагрузки при перегрузке пула соединений.
+ *  Раз в load-shedding.sample-interval снимаются среднее время ожидания соединения за интервал
+ *  (таймер hikari.connections.acquire) и число потоков в очереди пула (HikariPoolMXBean).
+ *  Пока одно из них выше порога, одновременно обрабатывается не больше load-shedding.max-concurrency
+ *  запросов, остальные сразу получают 503 вместо ожидания соединения до connection-timeout.
+ *  В нормальном режиме число запросов не ограничивается, но считается (gauge api.requests.in-flight).
+ */
+@Component
+@Slf4j
+public class PoolLoadShedder {
+
+    private static final String ACQUIRE_TIMER = "hikari.connections.acquire";
+
+    private final DataSource dataSource;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long acquireThresholdNanos;
+
+    private final int maxPendingThreads;
+
+    private final int maxConcurrency;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean overloaded;
+
+    private long lastAcquireCount;
+
+    private double lastAcquireTotalNanos;
+
+    public PoolLoadShedder(DataSource dataSource,
+                           MeterRegistry meterRegistry,
+                           @Value("${load-shedding.acquire-threshold:50ms}") Duration acquireThreshold,
+                           @Value("${load-shedding.max-pending-threads:10}") int maxPendingThreads,
+                           @Value("${load-shedding.max-concurrency:20}") int maxConcurrency) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.acquireThresholdNanos = acquireThreshold.toNanos();
+        this.maxPendingThreads = maxPendingThreads;
+        this.maxConcurrency = maxConcurrency;
+        Gauge.builder("api.requests.in-flight", inFlight, AtomicInteger::get)
+                .description("Запросы REST API в обработке")
+                .register(meterRegistry);
+        Gauge.builder("api.requests.overloaded", this, shedder -> shedder.overloaded ? 1 : 0)
+                .description("1, если пул соединений перегружен и включен сброс нагрузки")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Занятие места под запрос.
+     * @return false, если пул перегружен и мест нет: запрос нужно отклонить
+     */
+    public boolean tryEnter() {
+        int current = inFlight.incrementAndGet();
+        if (overloaded && current > maxConcurrency) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Освобождение места, занятого в tryEnter.
+     */
+    public void exit() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Снятие показателей пула и переключение режима сброса нагрузки.
+     */
+    @Scheduled(fixedDelayString = "${load-shedding.sample-interval:1000}")
+    public void sample() {
+        long averageAcquireNanos = sampleAverageAcquireNanos();
+        int pendingThreads = pendingThreads();
+        boolean nowOverloaded = averageAcquireNanos > acquireThresholdNanos || pendingThreads > maxPendingThreads;
+        if (nowOverloaded != overloaded) {
+            log.warn(nowOverloaded
+                            ? "Пул соединений перегружен (ожидание {} мс, в очереди {}), включен сброс нагрузки"
+                            : "Пул соединений разгружен (ожидание {} мс, в очереди {}), сброс нагрузки выключен",
+                    TimeUnit.NANOSECONDS.toMillis(averageAcquireNanos), pendingThreads);
+        }
+        overloaded = nowOverloaded;
+    }
+
+    private long sampleAverageAcquireNanos() {
+        Timer timer = meterRegistry.find(ACQUIRE_TIMER).timer();
+        if (timer == null) {
+            return 0;
+        }
+        long count = timer.count();
+        double totalNanos = timer.totalTime(TimeUnit.NANOSECONDS);
+        long acquired = count - lastAcquireCount;
+        double waited = totalNanos - lastAcquireTotalNanos;
+        lastAcquireCount = count;
+        lastAcquireTotalNanos = totalNanos;
+        return acquired > 0 ? (long) (waited / acquired) : 0;
+    }
+
+    private int pendingThreads() {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return 0;
+            }
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            return pool != null ? pool.getThreadsAwaitingConnection() : 0;
+        } catch (SQLException e) {
+            return 0;
+        }
+    }
+}
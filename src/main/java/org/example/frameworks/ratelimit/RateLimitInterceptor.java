@@ -0,0 +1,162 @@
+package org.example.frameworks.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * TODO: Фильтр REST API перед контроллерами: сначала лимит частоты клиента (429 Too Many Requests),
+ *  затем сброс нагрузки при перегрузке пула соединений (503 Service Unavailable).
+ *  Оба ответа - ProblemDetail с заголовком Retry-After в секундах.
+ *  Клиент определяется аутентифицированным пользователем, без него - адресом подключения.
+ *  Заголовок rate-limit.client-header учитывается только от адресов rate-limit.trusted-proxies:
+ *  иначе клиент мог бы получать новое полное ведро, меняя значение заголовка в каждом запросе.
+ *  Асинхронные запросы (SSE, экспорт) освобождают место в счетчике сброса нагрузки, как только
+ *  поток запроса отпущен, поэтому долгие подписки не занимают его.
+ *  Отклоненные запросы считаются в метрике api.requests.rejected с тегами reason и endpoint.
+ */
+@Component
+@Slf4j
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    /**
+     * Атрибут запроса, занявшего место в PoolLoadShedder.
+     */
+    private static final String IN_FLIGHT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".IN_FLIGHT";
+
+    private final ClientRateLimiter clientRateLimiter;
+
+    private final PoolLoadShedder poolLoadShedder;
+
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String clientHeader;
+
+    private final Set<String> trustedProxies;
+
+    private final boolean rateLimitEnabled;
+
+    private final boolean loadSheddingEnabled;
+
+    private final long shedRetryAfterSeconds;
+
+    public RateLimitInterceptor(ClientRateLimiter clientRateLimiter,
+                                PoolLoadShedder poolLoadShedder,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${rate-limit.client-header:X-Client-Id}") String clientHeader,
+                                @Value("${rate-limit.trusted-proxies:}") List<String> trustedProxies,
+                                @Value("${rate-limit.enabled:true}") boolean rateLimitEnabled,
+                                @Value("${load-shedding.enabled:true}") boolean loadSheddingEnabled,
+                                @Value("${load-shedding.retry-after:1s}") Duration shedRetryAfter) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.poolLoadShedder = poolLoadShedder;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = Set.copyOf(trustedProxies);
+        this.rateLimitEnabled = rateLimitEnabled;
+        this.loadSheddingEnabled = loadSheddingEnabled;
+        this.shedRetryAfterSeconds = Math.max(1, shedRetryAfter.toSeconds());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+
+        if (rateLimitEnabled) {
+            String clientId = clientId(request);
+            long waitNanos = clientRateLimiter.tryAcquire(clientId, endpoint);
+            if (waitNanos > 0) {
+                log.info("Превышен лимит запросов клиента {} к {}", clientId, endpoint);
+                reject(response, endpoint, HttpStatus.TOO_MANY_REQUESTS, "rate-limit",
+                        Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)),
+                        "Превышен лимит запросов, повторите позже");
+                return false;
+            }
+        }
+
+        if (loadSheddingEnabled) {
+            if (!poolLoadShedder.tryEnter()) {
+                log.info("Запрос к {} отклонен: пул соединений перегружен", endpoint);
+                reject(response, endpoint, HttpStatus.SERVICE_UNAVAILABLE, "overload", shedRetryAfterSeconds,
+                        "Сервис перегружен, повторите позже");
+                return false;
+            }
+            request.setAttribute(IN_FLIGHT_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(IN_FLIGHT_ATTRIBUTE) != null) {
+            request.removeAttribute(IN_FLIGHT_ATTRIBUTE);
+            poolLoadShedder.exit();
+        }
+    }
+
+    /**
+     * Определение клиента для ведра: пользователь, заголовок доверенного прокси или адрес подключения.
+     * @param request текущий запрос
+     * @return идентификатор клиента
+     */
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "user:" + principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        if (trustedProxies.contains(remoteAddress)) {
+            String clientId = request.getHeader(clientHeader);
+            if (clientId != null && !clientId.isBlank()) {
+                return "client:" + clientId.trim();
+            }
+        }
+        return "addr:" + remoteAddress;
+    }
+
+    private void reject(HttpServletResponse response, String endpoint, HttpStatus status, String reason,
+                        long retryAfterSeconds, String detail) throws IOException {
+        meterRegistry.counter("api.requests.rejected", "reason", reason, "endpoint", endpoint).increment();
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setProperty("retryAfter", retryAfterSeconds);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_PROBLEM_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.frameworks.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * TODO: Неблокирующий token bucket в форме GCRA (generic cell rate algorithm).
+ *  Вместо пары «число токенов + время пополнения» хранится одно число - теоретическое время
+ *  прихода следующего запроса, поэтому состояние меняется одним compareAndSet без блокировок.
+ *  Поведение совпадает с классическим ведром: до capacity запросов подряд, дальше
+ *  refillPerSecond запросов в секунду.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Интервал пополнения одного токена, нс.
+     */
+    private final long emissionInterval;
+
+    /**
+     * Допустимое опережение расписания, нс: capacity интервалов.
+     */
+    private final long tolerance;
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(int capacity, double refillPerSecond) {
+        this.emissionInterval = Math.max(1, (long) (NANOS_PER_SECOND / refillPerSecond));
+        this.tolerance = emissionInterval * capacity;
+    }
+
+    /**
+     * Попытка взять один токен.
+     * @param now текущее время System.nanoTime()
+     * @return 0, если токен выдан, иначе время до появления токена, нс
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + emissionInterval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,15 +1,73 @@
 package org.example.frameworks.repository;
 
+import org.example.frameworks.dto.CommentDto;
 import org.example.frameworks.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Integer> {
 
-    List<Comment> findByTaskId(Integer taskId);
-
     boolean existsById(Integer id);
+
+    /**
+     * Удаление комментария одним DELETE с возвратом ID его задачи для события outbox.
+     * @param id ID комментария
+     * @return ID задачи удаленного комментария или пустой Optional, если комментария нет
+     */
+    @Query(value = "delete from comments where id = :id returning cast(task_id as integer)", nativeQuery = true)
+    Optional<Integer> deleteByIdReturningTaskId(@Param("id") Integer id);
+
+    /**
+     * Получение только времени последнего обновления комментария для ETag.
+     * @param id ID комментария
+     * @return время последнего обновления, если комментарий существует
+     */
+    @Query("select c.updateAt from Comment c where c.id = :id")
+    Optional<LocalDateTime> findUpdateAtById(@Param("id") Integer id);
+
+    /**
+     * Первая страница комментариев задачи в порядке создания.
+     * @param taskId ID задачи
+     * @param limit максимальное количество строк
+     * @return комментарии в виде DTO
+     */
+    @Query("select new org.example.frameworks.dto.CommentDto(c.id, c.text, c.task.id, c.createdAt, c.updateAt, c.version) " +
+            "from Comment c where c.task.id = :taskId order by c.createdAt, c.id")
+    List<CommentDto> findPageByTaskId(@Param("taskId") Integer taskId, Limit limit);
+
+    /**
+     * Keyset-выборка следующей страницы комментариев задачи: комментарии после (createdAt, id) курсора.
+     * Использует индекс comments(task_id, created_at, id).
+     * @param taskId ID задачи
+     * @param createdAt время создания последнего комментария предыдущей страницы
+     * @param id ID последнего комментария предыдущей страницы
+     * @param limit максимальное количество строк
+     * @return комментарии в виде DTO
+     */
+    @Query("select new org.example.frameworks.dto.CommentDto(c.id, c.text, c.task.id, c.createdAt, c.updateAt, c.version) " +
+            "from Comment c where c.task.id = :taskId " +
+            "and (c.createdAt > :createdAt or (c.createdAt = :createdAt and c.id > :id)) " +
+            "order by c.createdAt, c.id")
+    List<CommentDto> findPageByTaskIdAfter(@Param("taskId") Integer taskId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Integer id,
+                                           Limit limit);
+
+    /**
+     * Получение комментариев нескольких задач сразу в виде DTO, без загрузки сущностей.
+     * @param taskIds ID задач
+     * @return комментарии, упорядоченные по времени создания
+     */
+    @Query("select new org.example.frameworks.dto.CommentDto(c.id, c.text, c.task.id, c.createdAt, c.updateAt, c.version) " +
+            "from Comment c where c.task.id in :taskIds order by c.createdAt, c.id")
+    List<CommentDto> findDtosByTaskIdIn(@Param("taskIds") Collection<Integer> taskIds);
 }
@@ -0,0 +1,30 @@
+package org.example.frameworks.repository;
+
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * TODO: Типизированный фильтр задач для запросов TaskRepository.
+ *  Значение null означает отсутствие условия. Пользователи задаются ID,
+ *  чтобы условие шло по внешнему ключу (и его индексу) без join на users.
+ *
+ * @param authorsId ID автора
+ * @param executorId ID исполнителя
+ */
+public record TaskFilter(TaskStatus status,
+                         TaskPriority priority,
+                         Integer authorsId,
+                         Integer executorId,
+                         LocalDateTime createdFrom,
+                         LocalDateTime createdTo,
+                         LocalDateTime updatedFrom,
+                         LocalDateTime updatedTo) {
+
+    /**
+     * Фильтр без условий.
+     */
+    public static final TaskFilter EMPTY = new TaskFilter(null, null, null, null, null, null, null, null);
+}
@@ -1,11 +1,193 @@
 package org.example.frameworks.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.frameworks.entity.Task;
-import org.example.frameworks.entity.User;
+import org.example.frameworks.repository.projection.DayCount;
+import org.example.frameworks.repository.projection.GroupCount;
+import org.example.frameworks.repository.projection.TaskRow;
+import org.example.frameworks.repository.projection.TaskSearchHit;
+import org.example.frameworks.repository.projection.TaskStamp;
+import org.example.frameworks.repository.projection.TaskSummaryRow;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, Integer> {
+public interface TaskRepository extends JpaRepository<Task, Integer>, TaskRepositoryCustom {
 
+    String TASK_ROW_SELECT = "select new org.example.frameworks.repository.projection.TaskRow(" +
+            "t.id, t.title, t.description, t.completed, t.status, t.priority, " +
+            "a.username, e.username, t.createdAt, t.updateAt, " +
+            "(select count(c) from Comment c where c.task = t), t.version) " +
+            "from Task t left join t.authors a left join t.executor e ";
+
+    /**
+     * Получение проекции задачи по ID одним запросом.
+     * @param id ID задачи
+     * @return проекция задачи с username автора и исполнителя
+     */
+    @Query(TASK_ROW_SELECT + "where t.id = :id")
+    Optional<TaskRow> findRowById(@Param("id") Integer id);
+
+    /**
+     * Получение отметки версии задачи, ее автора, исполнителя и комментариев для ETag.
+     * @param id ID задачи
+     * @return версия и время обновления задачи, время обновления автора и исполнителя,
+     * последнее время обновления и количество комментариев
+     */
+    @Query("select new org.example.frameworks.repository.projection.TaskStamp(" +
+            "t.version, t.updateAt, a.updatedAt, e.updatedAt, max(c.updateAt), count(c)) " +
+            "from Task t left join t.authors a left join t.executor e left join t.comments c " +
+            "where t.id = :id group by t.id, t.version, t.updateAt, a.updatedAt, e.updatedAt")
+    Optional<TaskStamp> findStampById(@Param("id") Integer id);
+
+    /**
+     * Потоковое чтение проекций всех задач в порядке возрастания ID.
+     * Строки читаются курсором PostgreSQL порциями по fetch size, поэтому должны
+     * потребляться внутри транзакции, а поток - закрываться после использования.
+     * @return поток проекций задач
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(TASK_ROW_SELECT + "order by t.id")
+    Stream<TaskRow> streamAllRows();
+
+    /**
+     * Получение текущей версии задачи без загрузки сущности.
+     * @param id ID задачи
+     * @return версия задачи, если она существует
+     */
+    @Query("select t.version from Task t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Integer id);
+
+    /**
+     * Массовое изменение задач одним UPDATE по списку ID с возвратом ID измененных задач.
+     * Поля, для которых передан null, не меняются; версия увеличивается, как при обычном обновлении.
+     * Нативный запрос не сбрасывает регион задач в кэше второго уровня целиком, как JPQL UPDATE:
+     * измененные записи сбрасывает EntityCacheEvictor.
+     * @param ids ID задач
+     * @param status имя нового статуса или null
+     * @param priority имя нового приоритета или null
+     * @param completed новый признак выполнения или null
+     * @param updateAt время изменения
+     * @return ID измененных задач
+     */
+    @Query(value = "update task set status = coalesce(cast(:status as varchar), status), " +
+            "priority = coalesce(cast(:priority as varchar), priority), " +
+            "completed = coalesce(cast(:completed as boolean), completed), " +
+            "update_at = :updateAt, version = version + 1 " +
+            "where id in (:ids) returning id", nativeQuery = true)
+    List<Integer> transitionReturningIds(@Param("ids") Collection<Integer> ids,
+                                         @Param("status") String status,
+                                         @Param("priority") String priority,
+                                         @Param("completed") Boolean completed,
+                                         @Param("updateAt") LocalDateTime updateAt);
+
+    /**
+     * Удаление задач по списку ID одним DELETE с возвратом ID фактически удаленных задач.
+     * Комментарии удаляются внешним ключом ON DELETE CASCADE, ссылки пользователей обнуляются ON DELETE SET NULL.
+     * Нативный запрос не сбрасывает регионы кэша второго уровня целиком, как JPQL DELETE:
+     * затронутые записи сбрасывает EntityCacheEvictor.
+     * @param ids ID задач
+     * @return ID удаленных задач
+     */
+    @Query(value = "delete from task where id in (:ids) returning id", nativeQuery = true)
+    List<Integer> deleteByIdInReturningIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Условие диапазона дат создания для агрегатных запросов: пустая граница не ограничивает выборку.
+     */
+    String CREATED_BETWEEN = "where (:createdFrom is null or t.createdAt >= :createdFrom) " +
+            "and (:createdTo is null or t.createdAt < :createdTo) ";
+
+    /**
+     * Количество задач по статусам.
+     * @param createdFrom нижняя граница даты создания (включительно) или null
+     * @param createdTo верхняя граница даты создания (исключительно) или null
+     * @return статус и количество задач
+     */
+    @Query("select new org.example.frameworks.repository.projection.GroupCount(cast(t.status as String), count(t)) " +
+            "from Task t " + CREATED_BETWEEN + "group by t.status")
+    List<GroupCount> countByStatus(@Param("createdFrom") LocalDateTime createdFrom,
+                                   @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * Количество задач по приоритетам.
+     * @param createdFrom нижняя граница даты создания (включительно) или null
+     * @param createdTo верхняя граница даты создания (исключительно) или null
+     * @return приоритет (null - без приоритета) и количество задач
+     */
+    @Query("select new org.example.frameworks.repository.projection.GroupCount(cast(t.priority as String), count(t)) " +
+            "from Task t " + CREATED_BETWEEN + "group by t.priority")
+    List<GroupCount> countByPriority(@Param("createdFrom") LocalDateTime createdFrom,
+                                     @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * Количество задач по исполнителям.
+     * @param createdFrom нижняя граница даты создания (включительно) или null
+     * @param createdTo верхняя граница даты создания (исключительно) или null
+     * @return username исполнителя (null - без исполнителя) и количество задач
+     */
+    @Query("select new org.example.frameworks.repository.projection.GroupCount(e.username, count(t)) " +
+            "from Task t left join t.executor e " + CREATED_BETWEEN + "group by e.username")
+    List<GroupCount> countByExecutor(@Param("createdFrom") LocalDateTime createdFrom,
+                                     @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * Количество созданных задач по дням.
+     * @param createdFrom нижняя граница даты создания (включительно) или null
+     * @param createdTo верхняя граница даты создания (исключительно) или null
+     * @return день и количество созданных задач в порядке возрастания дня
+     */
+    @Query("select new org.example.frameworks.repository.projection.DayCount(cast(t.createdAt as LocalDate), count(t)) " +
+            "from Task t " + CREATED_BETWEEN + "group by cast(t.createdAt as LocalDate) " +
+            "order by cast(t.createdAt as LocalDate)")
+    List<DayCount> countCreatedPerDay(@Param("createdFrom") LocalDateTime createdFrom,
+                                      @Param("createdTo") LocalDateTime createdTo);
+
+    /**
+     * Полнотекстовый поиск задач по заголовку, описанию и тексту комментариев.
+     * Использует колонки search_vector (tsvector, generated) с GIN-индексами; релевантность задачи -
+     * сумма ts_rank по самой задаче и ее комментариям (комментарии с половинным весом).
+     * @param query поисковая строка в синтаксисе websearch_to_tsquery
+     * @param limit размер страницы
+     * @param offset смещение страницы
+     * @return ID задач и релевантность в порядке убывания релевантности
+     */
+    @Query(value = """
+            with query as (select websearch_to_tsquery('russian', :query) as q)
+            select hits.task_id as "taskId", cast(sum(hits.rank) as double precision) as "rank"
+            from (
+                select t.id as task_id, ts_rank(t.search_vector, query.q) as rank
+                from task t, query
+                where t.search_vector @@ query.q
+                union all
+                select cast(c.task_id as integer), ts_rank(c.search_vector, query.q) * 0.5
+                from comments c, query
+                where c.search_vector @@ query.q and c.task_id is not null
+            ) hits
+            group by hits.task_id
+            order by "rank" desc, hits.task_id
+            limit :limit offset :offset
+            """, nativeQuery = true)
+    List<TaskSearchHit> search(@Param("query") String query, @Param("limit") int limit, @Param("offset") long offset);
+
+    /**
+     * Получение кратких проекций задач по списку ID.
+     * @param ids ID задач
+     * @return краткие проекции в произвольном порядке
+     */
+    @Query("select new org.example.frameworks.repository.projection.TaskSummaryRow(" +
+            "t.id, t.title, t.status, t.priority, e.username, t.updateAt) " +
+            "from Task t left join t.executor e where t.id in :ids")
+    List<TaskSummaryRow> findSummariesByIdIn(@Param("ids") Collection<Integer> ids);
 }
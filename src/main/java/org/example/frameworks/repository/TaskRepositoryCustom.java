@@ -0,0 +1,45 @@
+package org.example.frameworks.repository;
+
+import org.example.frameworks.repository.projection.TaskRow;
+import org.example.frameworks.repository.projection.TaskStatusRow;
+import org.example.frameworks.repository.projection.TaskSummaryRow;
+
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * TODO: Запросы к задачам с динамическим набором условий.
+ *  Реализуются через Criteria API в TaskRepositoryImpl, Spring Data подключает их к TaskRepository.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Keyset-выборка страницы проекций задач по фильтру: задачи с ID больше курсора в порядке возрастания ID.
+     * @param filter условия фильтрации
+     * @param afterId ID последней задачи предыдущей страницы
+     * @param limit максимальное количество строк
+     * @return проекции задач следующей страницы
+     */
+    List<TaskRow> findRows(TaskFilter filter, Integer afterId, int limit);
+
+    /**
+     * Keyset-выборка страницы кратких проекций задач по фильтру: только id, title, status, priority,
+     * username исполнителя и update_at, без описания и без обращения к таблице комментариев.
+     * @param filter условия фильтрации
+     * @param afterId ID последней задачи предыдущей страницы
+     * @param limit максимальное количество строк
+     * @return краткие проекции задач следующей страницы
+     */
+    List<TaskSummaryRow> findSummaries(TaskFilter filter, Integer afterId, int limit);
+
+    /**
+     * Блокировка задач для массового изменения (SELECT ... FOR UPDATE) с чтением их текущего статуса.
+     * Строки блокируются в порядке возрастания ID, чтобы параллельные массовые изменения не взаимоблокировались.
+     * @param filter условия фильтрации
+     * @param ids ID задач или null, если задачи выбираются только фильтром
+     * @param limit максимальное количество строк
+     * @return ID и статусы заблокированных задач
+     */
+    List<TaskStatusRow> lockStatuses(TaskFilter filter, Collection<Integer> ids, int limit);
+}
@@ -0,0 +1,135 @@
+package org.example.frameworks.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.example.frameworks.entity.Comment;
+import org.example.frameworks.entity.Task;
+import org.example.frameworks.entity.User;
+import org.example.frameworks.repository.projection.TaskRow;
+import org.example.frameworks.repository.projection.TaskStatusRow;
+import org.example.frameworks.repository.projection.TaskSummaryRow;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * TODO: Реализация TaskRepositoryCustom на Criteria API.
+ *  Условия добавляются только для заданных полей фильтра, поэтому СУБД получает
+ *  простой запрос, который может использовать индексы (status, priority), executor_id, update_at.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskRow> findRows(TaskFilter filter, Integer afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskRow> query = cb.createQuery(TaskRow.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> authors = task.join("authors", JoinType.LEFT);
+        Join<Task, User> executor = task.join("executor", JoinType.LEFT);
+
+        Subquery<Long> commentCount = query.subquery(Long.class);
+        Root<Comment> comment = commentCount.from(Comment.class);
+        commentCount.select(cb.count(comment)).where(cb.equal(comment.get("task"), task));
+
+        query.select(cb.construct(TaskRow.class,
+                task.get("id"), task.get("title"), task.get("description"), task.get("completed"),
+                task.get("status"), task.get("priority"),
+                authors.get("username"), executor.get("username"),
+                task.get("createdAt"), task.get("updateAt"), commentCount, task.get("version")));
+
+        List<Predicate> predicates = predicates(cb, task, filter);
+        predicates.add(cb.greaterThan(task.<Integer>get("id"), afterId));
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TaskSummaryRow> findSummaries(TaskFilter filter, Integer afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummaryRow> query = cb.createQuery(TaskSummaryRow.class);
+        Root<Task> task = query.from(Task.class);
+        Join<Task, User> executor = task.join("executor", JoinType.LEFT);
+
+        query.select(cb.construct(TaskSummaryRow.class,
+                task.get("id"), task.get("title"), task.get("status"), task.get("priority"),
+                executor.get("username"), task.get("updateAt")));
+
+        List<Predicate> predicates = predicates(cb, task, filter);
+        predicates.add(cb.greaterThan(task.<Integer>get("id"), afterId));
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<TaskStatusRow> lockStatuses(TaskFilter filter, Collection<Integer> ids, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskStatusRow> query = cb.createQuery(TaskStatusRow.class);
+        Root<Task> task = query.from(Task.class);
+
+        query.select(cb.construct(TaskStatusRow.class, task.get("id"), task.get("status")));
+
+        List<Predicate> predicates = predicates(cb, task, filter);
+        if (ids != null) {
+            predicates.add(task.<Integer>get("id").in(ids));
+        }
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(task.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Построение условий WHERE по заданным полям фильтра.
+     * @param cb построитель запросов
+     * @param task корень запроса
+     * @param filter условия фильтрации
+     * @return изменяемый список условий
+     */
+    static List<Predicate> predicates(CriteriaBuilder cb, Root<Task> task, TaskFilter filter) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.status() != null) {
+            predicates.add(cb.equal(task.get("status"), filter.status()));
+        }
+        if (filter.priority() != null) {
+            predicates.add(cb.equal(task.get("priority"), filter.priority()));
+        }
+        if (filter.authorsId() != null) {
+            predicates.add(cb.equal(task.get("authors").get("id"), filter.authorsId()));
+        }
+        if (filter.executorId() != null) {
+            predicates.add(cb.equal(task.get("executor").get("id"), filter.executorId()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("createdAt"), filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(task.<LocalDateTime>get("createdAt"), filter.createdTo()));
+        }
+        if (filter.updatedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.<LocalDateTime>get("updateAt"), filter.updatedFrom()));
+        }
+        if (filter.updatedTo() != null) {
+            predicates.add(cb.lessThan(task.<LocalDateTime>get("updateAt"), filter.updatedTo()));
+        }
+        return predicates;
+    }
+}
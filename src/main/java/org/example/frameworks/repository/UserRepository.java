@@ -1,9 +1,16 @@
 package org.example.frameworks.repository;
 
+import jakarta.persistence.LockModeType;
 import org.example.frameworks.entity.User;
+import org.example.frameworks.repository.projection.UserTaskStatRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +23,59 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Загрузка пользователя с блокировкой строки (SELECT ... FOR UPDATE) до конца транзакции:
+     * версия, проверенная по запросу, не может измениться до записи.
+     * @param id ID пользователя
+     * @return заблокированный пользователь, если он существует
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findByIdForUpdate(@Param("id") Integer id);
+
+    /**
+     * Получение только времени последнего обновления пользователя для ETag.
+     * @param id ID пользователя
+     * @return время последнего обновления, если пользователь существует
+     */
+    @Query("select u.updatedAt from User u where u.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Integer id);
+
+    /**
+     * Удаление пользователя одним DELETE без загрузки сущности.
+     * Ссылки задач на пользователя обнуляются внешними ключами ON DELETE SET NULL.
+     * Нативный запрос не сбрасывает регион пользователей целиком, как JPQL DELETE:
+     * затронутые записи сбрасывает EntityCacheEvictor.
+     * @param id ID пользователя
+     * @return ID удаленного пользователя или пустой Optional, если пользователя нет
+     */
+    @Query(value = "delete from users where id = :id returning id", nativeQuery = true)
+    Optional<Integer> deleteByIdReturningId(@Param("id") Integer id);
+
+    /**
+     * Чтение счетчиков задач пользователя по первичному ключу user_task_stats, без обращения к task.
+     * @param userId ID пользователя
+     * @return ненулевые счетчики по роли, статусу и приоритету
+     */
+    @Query(value = "select role as \"role\", status as \"status\", priority as \"priority\", " +
+            "task_count as \"taskCount\" from user_task_stats where user_id = :userId and task_count > 0",
+            nativeQuery = true)
+    List<UserTaskStatRow> findTaskStats(@Param("userId") Integer userId);
+
+    /**
+     * Поиск только ID пользователя по username, без загрузки сущности.
+     * @param username имя пользователя
+     * @return ID пользователя, если он существует
+     */
+    @Query("select u.id from User u where u.username = :username")
+    Optional<Integer> findIdByUsername(@Param("username") String username);
+
+    /**
+     * Поиск только ID пользователя по email, без загрузки сущности.
+     * @param email email пользователя
+     * @return ID пользователя, если он существует
+     */
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Integer> findIdByEmail(@Param("email") String email);
 }
@@ -0,0 +1,14 @@
+package org.example.frameworks.repository.projection;
+
+import java.time.LocalDate;
+
+
+/**
+ * TODO: Количество задач, созданных за день.
+ *
+ * @param day день создания
+ * @param count количество созданных задач
+ */
+public record DayCount(LocalDate day,
+                       Long count) {
+}
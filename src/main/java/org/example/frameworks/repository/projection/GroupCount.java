@@ -0,0 +1,12 @@
+package org.example.frameworks.repository.projection;
+
+
+/**
+ * TODO: Строка агрегатного запроса GROUP BY: значение группы и количество задач в ней.
+ *
+ * @param key значение группы (статус, приоритет, username исполнителя) или null
+ * @param count количество задач в группе
+ */
+public record GroupCount(String key,
+                         Long count) {
+}
@@ -0,0 +1,31 @@
+package org.example.frameworks.repository.projection;
+
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * TODO: Проекция задачи для чтения: только колонки, которые возвращает API.
+ *  Заполняется конструкторным выражением JPQL и не попадает в persistence context,
+ *  поэтому не требует снимков для dirty checking и не создает ленивых прокси.
+ *
+ * @param authors username автора задачи
+ * @param executor username исполнителя задачи
+ * @param commentCount количество комментариев, считается подзапросом без загрузки комментариев
+ * @param version версия задачи для оптимистической блокировки
+ */
+public record TaskRow(Integer id,
+                      String title,
+                      String description,
+                      Boolean completed,
+                      TaskStatus status,
+                      TaskPriority priority,
+                      String authors,
+                      String executor,
+                      LocalDateTime createdAt,
+                      LocalDateTime updateAt,
+                      Long commentCount,
+                      Long version) {
+}
@@ -0,0 +1,13 @@
+package org.example.frameworks.repository.projection;
+
+
+/**
+ * TODO: Результат полнотекстового поиска: ID найденной задачи и ее релевантность.
+ *  Интерфейсная проекция для нативного запроса TaskRepository.search.
+ */
+public interface TaskSearchHit {
+
+    Integer getTaskId();
+
+    Double getRank();
+}
@@ -0,0 +1,23 @@
+package org.example.frameworks.repository.projection;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * TODO: Отметка версии задачи вместе с ее комментариями, автором и исполнителем для вычисления ETag.
+ *  Читается одним агрегирующим запросом без загрузки задачи и комментариев.
+ *
+ * @param version версия задачи
+ * @param updateAt время последнего обновления задачи
+ * @param authorsUpdatedAt время последнего обновления автора (username входит в ответ), null если автора нет
+ * @param executorUpdatedAt время последнего обновления исполнителя, null если исполнителя нет
+ * @param commentsUpdateAt время последнего обновления комментариев, null если их нет
+ * @param commentCount количество комментариев (меняется при удалении)
+ */
+public record TaskStamp(Long version,
+                        LocalDateTime updateAt,
+                        LocalDateTime authorsUpdatedAt,
+                        LocalDateTime executorUpdatedAt,
+                        LocalDateTime commentsUpdateAt,
+                        Long commentCount) {
+}
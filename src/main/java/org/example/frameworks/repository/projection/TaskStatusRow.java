@@ -0,0 +1,11 @@
+package org.example.frameworks.repository.projection;
+
+import org.example.frameworks.entity.enumes.TaskStatus;
+
+
+/**
+ * TODO: ID и текущий статус задачи для проверки переходов при массовом изменении статуса.
+ */
+public record TaskStatusRow(Integer id,
+                            TaskStatus status) {
+}
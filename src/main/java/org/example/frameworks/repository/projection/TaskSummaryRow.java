@@ -0,0 +1,20 @@
+package org.example.frameworks.repository.projection;
+
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
+
+import java.time.LocalDateTime;
+
+
+/**
+ * TODO: Узкая проекция задачи для списков: не читает description и не обращается к comments.
+ *
+ * @param executor username исполнителя задачи
+ */
+public record TaskSummaryRow(Integer id,
+                             String title,
+                             TaskStatus status,
+                             TaskPriority priority,
+                             String executor,
+                             LocalDateTime updateAt) {
+}
@@ -0,0 +1,23 @@
+package org.example.frameworks.repository.projection;
+
+
+/**
+ * TODO: Счетчик задач пользователя из таблицы user_task_stats.
+ *  Интерфейсная проекция для нативного запроса UserRepository.findTaskStats.
+ */
+public interface UserTaskStatRow {
+
+    /**
+     * @return роль пользователя в задаче: AUTHOR или EXECUTOR
+     */
+    String getRole();
+
+    String getStatus();
+
+    /**
+     * @return приоритет задачи или NONE, если он не задан
+     */
+    String getPriority();
+
+    Long getTaskCount();
+}
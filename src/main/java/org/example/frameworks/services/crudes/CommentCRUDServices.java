@@ -1,8 +1,8 @@
 package org.example.frameworks.services.crudes;
 
+import org.example.frameworks.dto.CursorPageDto;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
 
 /**
  * TODO: Этот Интерфейс для CRUD операций с комментариями.
@@ -20,11 +20,14 @@ public interface CommentCRUDServices<T>{
     T getById(Integer id) throws ResponseStatusException;
 
     /**
-     * Получение всех комментариев по ID задачи.
+     * Получение страницы комментариев задачи в порядке создания (keyset-пагинация).
      * @param taskId ID задачи
-     * @return список комментариев в формате DTO
+     * @param cursor курсор из предыдущей страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница комментариев и курсор следующей страницы
+     * @throws ResponseStatusException если курсор или размер страницы некорректны
      */
-    List<T> findByTaskId(Integer taskId);
+    CursorPageDto<T> findPageByTaskId(Integer taskId, String cursor, Integer size) throws ResponseStatusException;
 
     /**
      * Создание нового комментария.
@@ -1,6 +1,8 @@
 package org.example.frameworks.services.crudes;
 
+import org.example.frameworks.dto.CursorPageDto;
 import org.example.frameworks.dto.TaskDto;
+import org.example.frameworks.dto.TaskFilterDto;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
@@ -15,9 +17,11 @@ import java.util.List;
 public interface TaskCRUDServices<T> {
 
     T getById(Integer id) throws ResponseStatusException;
-    List<T> getALL();
+    CursorPageDto<T> getPage(TaskFilterDto filter, String cursor, Integer size) throws ResponseStatusException;
     void create(T dto);
+    List<T> createBatch(List<T> dtos) throws ResponseStatusException;
     void update(Integer id, T dto) throws ResponseStatusException;
+    void patch(Integer id, T dto) throws ResponseStatusException;
     void deletedById(Integer id) throws ResponseStatusException;
 
 }
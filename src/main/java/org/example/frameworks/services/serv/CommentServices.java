@@ -1,30 +1,50 @@
 package org.example.frameworks.services.serv;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.frameworks.dto.CommentDto;
+import org.example.frameworks.dto.CursorPageDto;
 import org.example.frameworks.entity.Comment;
 import org.example.frameworks.entity.Task;
+import org.example.frameworks.outbox.OutboxEventType;
+import org.example.frameworks.outbox.OutboxWriter;
 import org.example.frameworks.repository.CommentRepository;
 import org.example.frameworks.repository.TaskRepository;
 import org.example.frameworks.services.crudes.CommentCRUDServices;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed("comments.service")
 public class CommentServices implements CommentCRUDServices<CommentDto> {
 
 
     private final CommentRepository commentRepository;
     private final TaskRepository taskRepository;
 
+    private final OutboxWriter outboxWriter;
+
+    private final EntityCacheEvictor entityCacheEvictor;
+
+    @Value("${comments.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${comments.page.max-size:500}")
+    private int maxPageSize;
+
     @Override
     public CommentDto getById(Integer id) throws ResponseStatusException {
         log.info("Получение комментария с ID: {}", id);
@@ -34,16 +54,59 @@ public class CommentServices implements CommentCRUDServices<CommentDto> {
         return mapToDo(comment);
     }
 
+    /**
+     * Вычисление ETag комментария по времени его обновления, без загрузки сущности.
+     * @param id ID комментария
+     * @return ETag или пустой Optional, если комментарий не найден
+     */
+    public Optional<String> getETag(Integer id) {
+        return commentRepository.findUpdateAtById(id)
+                .map(updateAt -> ETags.weak(id, updateAt));
+    }
+
+    /**
+     * Вычисление ETag списка комментариев задачи по последнему времени обновления и количеству комментариев.
+     * @param taskId ID задачи
+     * @return ETag или пустой Optional, если задача не найдена
+     */
+    public Optional<String> getTaskCommentsETag(Integer taskId) {
+        return taskRepository.findStampById(taskId)
+                .map(stamp -> ETags.weak(taskId, stamp.commentsUpdateAt(), stamp.commentCount()));
+    }
+
     @Override
-    public List<CommentDto> findByTaskId(Integer taskId) {
-        log.info("Получение всех комментариев для задачи с ID: {}", taskId);
-        List<Comment> comments = commentRepository.findByTaskId(taskId);
-        return comments.stream()
-                .map(CommentServices::mapToDo)
-                .collect(Collectors.toList());
+    public CursorPageDto<CommentDto> findPageByTaskId(Integer taskId, String cursor, Integer size) {
+        if (size != null && size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Размер страницы должен быть положительным");
+        }
+        int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+        log.info("Получение страницы комментариев для задачи с ID: {}, размер: {}", taskId, pageSize);
+
+        List<CommentDto> comments;
+        if (cursor == null) {
+            comments = commentRepository.findPageByTaskId(taskId, Limit.of(pageSize + 1));
+        } else {
+            String[] parts = Cursors.decode(cursor, 2);
+            try {
+                comments = commentRepository.findPageByTaskIdAfter(taskId,
+                        LocalDateTime.parse(parts[0]), Integer.valueOf(parts[1]), Limit.of(pageSize + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный курсор пагинации");
+            }
+        }
+
+        boolean hasNext = comments.size() > pageSize;
+        List<CommentDto> items = hasNext ? comments.subList(0, pageSize) : comments;
+        CommentDto last = hasNext ? items.get(items.size() - 1) : null;
+        return CursorPageDto.<CommentDto>builder()
+                .items(items)
+                .nextCursor(last != null ? Cursors.encode(last.getCreatedAt(), last.getId()) : null)
+                .size(pageSize)
+                .build();
     }
 
     @Override
+    @Transactional
     public CommentDto create(CommentDto commentDto) {
         log.info("Создание нового комментария для задачи с ID: {}", commentDto.getTaskId());
 
@@ -57,29 +120,41 @@ public class CommentServices implements CommentCRUDServices<CommentDto> {
         comment.setUpdateAt(LocalDateTime.now());
 
         Comment savedComment = commentRepository.save(comment);
-        return mapToDo(savedComment);
+        CommentDto savedDto = mapToDo(savedComment);
+        outboxWriter.append(OutboxEventType.COMMENT_CREATED, task.getId(), savedDto);
+        return savedDto;
     }
 
     @Override
+    @Transactional
     public CommentDto update(Integer id, CommentDto commentDto) {
         log.info("Обновление комментария с ID: {}", id);
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         String.format("Комментарий с ID %d не найден", id)));
+        if (commentDto.getVersion() != null && !commentDto.getVersion().equals(comment.getVersion())) {
+            throw new VersionConflictException(
+                    String.format("Комментарий с ID %d был изменен: версия %d, текущая %d",
+                            id, commentDto.getVersion(), comment.getVersion()),
+                    comment.getVersion());
+        }
         comment.setText(commentDto.getText());
         comment.setUpdateAt(LocalDateTime.now());
-        Comment updatedComment = commentRepository.save(comment);
-        return mapToDo(updatedComment);
+        Comment updatedComment = commentRepository.saveAndFlush(comment);
+        CommentDto updatedDto = mapToDo(updatedComment);
+        outboxWriter.append(OutboxEventType.COMMENT_UPDATED, updatedDto.getTaskId(), updatedDto);
+        return updatedDto;
     }
 
     @Override
+    @Transactional
     public void deleteById(Integer id) throws ResponseStatusException {
         log.info("Удаление комментария с ID: {}", id);
-        if (!commentRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
-                    String.format("Комментарий с ID %d не найден", id));
-        }
-        commentRepository.deleteById(id);
+        Integer taskId = commentRepository.deleteByIdReturningTaskId(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("Комментарий с ID %d не найден", id)));
+        outboxWriter.append(OutboxEventType.COMMENT_DELETED, taskId, Map.of("id", id, "taskId", taskId));
+        entityCacheEvictor.commentDeleted(id, taskId);
     }
 
     /**
@@ -94,6 +169,7 @@ public class CommentServices implements CommentCRUDServices<CommentDto> {
         commentDto.setTaskId(comment.getTask().getId());
         commentDto.setCreatedAt(comment.getCreatedAt());
         commentDto.setUpdateAt(comment.getUpdateAt());
+        commentDto.setVersion(comment.getVersion());
         return commentDto;
     }
 
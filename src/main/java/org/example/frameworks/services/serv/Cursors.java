@@ -0,0 +1,72 @@
+package org.example.frameworks.services.serv;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+
+/**
+ * TODO: Кодирование и разбор непрозрачных курсоров для keyset-пагинации.
+ *  Курсор - это Base64URL от значений ключа последней строки страницы, разделенных '|'.
+ */
+public final class Cursors {
+
+    private static final String SEPARATOR = "|";
+
+    private Cursors() {
+    }
+
+    /**
+     * Кодирование значений ключа в курсор.
+     * @param parts значения ключа последней строки страницы
+     * @return непрозрачный курсор
+     */
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбор курсора на значения ключа.
+     * @param cursor курсор, полученный от клиента
+     * @param expectedParts ожидаемое количество значений
+     * @return значения ключа в исходном порядке
+     * @throws ResponseStatusException если курсор поврежден
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException(raw);
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный курсор пагинации");
+        }
+    }
+
+    /**
+     * Разбор курсора, состоящего из одного целочисленного идентификатора.
+     * @param cursor курсор, полученный от клиента
+     * @return идентификатор последней строки предыдущей страницы
+     * @throws ResponseStatusException если курсор поврежден
+     */
+    public static Integer decodeId(String cursor) {
+        String[] parts = decode(cursor, 1);
+        try {
+            return Integer.valueOf(parts[0]);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный курсор пагинации");
+        }
+    }
+}
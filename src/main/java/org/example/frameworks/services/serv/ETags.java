@@ -0,0 +1,43 @@
+package org.example.frameworks.services.serv;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+
+/**
+ * TODO: Построение ETag по отметкам версий сущностей.
+ *  ETag слабый (W/): представление зависит от согласованного формата ответа,
+ *  а для условного GET достаточно слабого сравнения.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * Построение слабого ETag из частей версии.
+     * Временные метки кодируются с точностью до наносекунд, null - как "0".
+     * @param parts части версии: ID, временные метки, счетчики
+     * @return значение заголовка ETag
+     */
+    public static String weak(Object... parts) {
+        StringBuilder tag = new StringBuilder("W/\"");
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            tag.append(format(parts[i]));
+        }
+        return tag.append('"').toString();
+    }
+
+    private static String format(Object part) {
+        if (part == null) {
+            return "0";
+        }
+        if (part instanceof LocalDateTime time) {
+            return Long.toHexString(time.toEpochSecond(ZoneOffset.UTC)) + "." + Integer.toHexString(time.getNano());
+        }
+        return part.toString();
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.frameworks.services.serv;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.entity.Comment;
+import org.example.frameworks.entity.Task;
+import org.example.frameworks.entity.User;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+
+/**
+ * TODO: Сброс кэша второго уровня Hibernate после изменений, о которых Hibernate не знает:
+ *  нативных DELETE ... RETURNING, UPDATE ... RETURNING массового перехода и каскадов внешних ключей в СУБД (ON DELETE CASCADE / SET NULL).
+ *  Изменения через сущности и JPQL Hibernate инвалидирует сам.
+ *  Перед удалением блокируются удаляемые строки и читаются ID строк, которые изменит каскад,
+ *  поэтому после фиксации транзакции сбрасываются только затронутые записи, а не регионы целиком.
+ *  Сброс выполняется после фиксации, чтобы параллельное чтение не вернуло
+ *  в кэш строки, которые еще видны до фиксации.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityCacheEvictor {
+
+    private static final String TASK_COMMENTS = Task.class.getName() + ".comments";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Подготовка к удалению задач: вместе с ними СУБД удалит комментарии и обнулит ссылки пользователей на задачи.
+     * Строки задач блокируются до чтения связанных ID, чтобы параллельная транзакция не добавила
+     * к ним комментарий или пользователя, который не попадет в сброс.
+     * Вызывается в транзакции удаления до DELETE.
+     * @param taskIds ID удаляемых задач
+     */
+    public void tasksDeleting(Collection<Integer> taskIds) {
+        List<Integer> ids = List.copyOf(taskIds);
+        entityManager.createQuery("select t.id from Task t where t.id in :ids", Integer.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        List<Integer> commentIds = entityManager.createQuery(
+                        "select c.id from Comment c where c.task.id in :ids", Integer.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        List<Integer> userIds = entityManager.createQuery(
+                        "select u.id from User u where u.task.id in :ids", Integer.class)
+                .setParameter("ids", ids)
+                .getResultList();
+        afterCommit(cache -> {
+            for (Integer id : ids) {
+                cache.evictEntityData(Task.class, id);
+                cache.evictCollectionData(TASK_COMMENTS, id);
+            }
+            for (Integer id : commentIds) {
+                cache.evictEntityData(Comment.class, id);
+            }
+            for (Integer id : userIds) {
+                cache.evictEntityData(User.class, id);
+            }
+        });
+    }
+
+    /**
+     * Задачи изменены нативным UPDATE массового перехода. Строки уже заблокированы транзакцией перехода.
+     * @param taskIds ID измененных задач
+     */
+    public void tasksTransitioned(Collection<Integer> taskIds) {
+        List<Integer> ids = List.copyOf(taskIds);
+        afterCommit(cache -> {
+            for (Integer id : ids) {
+                cache.evictEntityData(Task.class, id);
+            }
+        });
+    }
+
+    /**
+     * Комментарий удален нативным DELETE.
+     * @param commentId ID комментария
+     * @param taskId ID задачи комментария
+     */
+    public void commentDeleted(Integer commentId, Integer taskId) {
+        afterCommit(cache -> {
+            cache.evictEntityData(Comment.class, commentId);
+            cache.evictCollectionData(TASK_COMMENTS, taskId);
+        });
+    }
+
+    /**
+     * Подготовка к удалению пользователя: СУБД обнулит ссылки задач на него.
+     * Строка пользователя блокируется до чтения ID задач, чтобы параллельное назначение
+     * пользователя на задачу дождалось удаления. Вызывается в транзакции удаления до DELETE.
+     * @param userId ID удаляемого пользователя
+     */
+    public void userDeleting(Integer userId) {
+        entityManager.createQuery("select u.id from User u where u.id = :id", Integer.class)
+                .setParameter("id", userId)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        List<Integer> taskIds = entityManager.createQuery(
+                        "select t.id from Task t where t.authors.id = :id or t.executor.id = :id", Integer.class)
+                .setParameter("id", userId)
+                .getResultList();
+        afterCommit(cache -> {
+            cache.evictEntityData(User.class, userId);
+            for (Integer id : taskIds) {
+                cache.evictEntityData(Task.class, id);
+            }
+        });
+    }
+
+    private void afterCommit(Consumer<Cache> eviction) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.accept(cache);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                log.info("Сброс кэша второго уровня после изменения");
+                eviction.accept(cache);
+            }
+        });
+    }
+}
@@ -1,22 +1,60 @@
 package org.example.frameworks.services.serv;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.dto.CommentDto;
+import org.example.frameworks.dto.CursorPageDto;
+import org.example.frameworks.dto.TaskDeletionDto;
+import org.example.frameworks.dto.TaskDeletionResultDto;
 import org.example.frameworks.dto.TaskDto;
+import org.example.frameworks.dto.TaskFilterDto;
+import org.example.frameworks.dto.TaskSearchHitDto;
+import org.example.frameworks.dto.TaskSummaryDto;
+import org.example.frameworks.dto.TaskTransitionDto;
+import org.example.frameworks.dto.TaskTransitionResultDto;
+import org.example.frameworks.entity.Comment;
 import org.example.frameworks.entity.Task;
 import org.example.frameworks.entity.User;
 import org.example.frameworks.entity.enumes.TaskPriority;
 import org.example.frameworks.entity.enumes.TaskStatus;
+import org.example.frameworks.outbox.OutboxEventType;
+import org.example.frameworks.outbox.OutboxWriter;
+import org.example.frameworks.repository.CommentRepository;
+import org.example.frameworks.repository.TaskFilter;
 import org.example.frameworks.repository.TaskRepository;
-import org.example.frameworks.repository.UserRepository;
+import org.example.frameworks.repository.projection.TaskRow;
+import org.example.frameworks.repository.projection.TaskSearchHit;
+import org.example.frameworks.repository.projection.TaskStatusRow;
+import org.example.frameworks.repository.projection.TaskSummaryRow;
 import org.example.frameworks.services.crudes.TaskCRUDServices;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 
@@ -28,82 +66,457 @@ import java.util.List;
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed("tasks.service")
 public class TaskServices implements TaskCRUDServices<TaskDto> {
 
     private final TaskRepository taskRepository;
 
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+
+    private final EntityManager entityManager;
+
+    private final CommentRepository commentRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final OutboxWriter outboxWriter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EntityCacheEvictor entityCacheEvictor;
+
+    /**
+     * Максимальное количество ID задач в одном IN-запросе за комментариями.
+     */
+    private static final int COMMENT_FETCH_CHUNK = 1000;
+
+    /**
+     * Количество задач, которое экспорт держит в памяти одновременно.
+     */
+    private static final int EXPORT_CHUNK = 500;
+
+    /**
+     * Размер страницы по умолчанию, если клиент его не указал.
+     */
+    @Value("${tasks.page.default-size:50}")
+    private int defaultPageSize;
 
     /**
-     * Получение задачи по ID
+     * Максимально допустимый размер страницы, ограничивает память на один запрос.
+     */
+    @Value("${tasks.page.max-size:500}")
+    private int maxPageSize;
+
+    /**
+     * Максимальное количество задач в одном запросе пакетного создания.
+     */
+    @Value("${tasks.batch.max-size:5000}")
+    private int maxBatchSize;
+
+    /**
+     * Размер пакета JDBC; после каждого пакета persistence context сбрасывается и очищается.
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    /**
+     * Количество повторов обновления без версии при конфликте оптимистической блокировки.
+     */
+    @Value("${tasks.update.max-retries:3}")
+    private int maxUpdateRetries;
+
+    /**
+     * Получение задачи по ID.
+     * Комментарии в ответ не входят, только их количество; сами комментарии отдаются постранично CommentController.
      * @param id идентификатор задачи
      * @return объект задачи
      * @throws ResponseStatusException если задача не найдена
      */
     @Override
+    @Transactional(readOnly = true)
     public TaskDto getById(Integer id) {
         log.info("Получение задачи с ID: {}", id);
-        Task task = taskRepository.findById(id)
+        TaskRow row = taskRepository.findRowById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Задача с id %d не найдена", id)));
-        return mapToDto(task);
+        return mapToDto(row, Collections.emptyList());
+    }
+
+    /**
+     * Вычисление ETag задачи по ее версии и времени обновления, времени обновления автора
+     * и исполнителя (их username входят в ответ) и количеству комментариев.
+     * Выполняет один агрегирующий запрос без загрузки задачи и построения DTO.
+     * @param id идентификатор задачи
+     * @return ETag или пустой Optional, если задача не найдена
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getETag(Integer id) {
+        return taskRepository.findStampById(id)
+                .map(stamp -> ETags.weak(id, stamp.version(), stamp.updateAt(),
+                        stamp.authorsUpdatedAt(), stamp.executorUpdatedAt(), stamp.commentCount()));
     }
 
     /**
-     * Получение всех задач
-     * @return список всех задач
+     * Получение страницы задач по фильтру с keyset-пагинацией по ID.
+     * Все условия фильтра вычисляются в SQL. Выбирается на одну строку больше размера страницы,
+     * чтобы узнать о наличии следующей страницы без COUNT. Комментарии в страницу не входят,
+     * только их количество; сами комментарии отдаются постранично CommentController.
+     * @param filterDto условия фильтрации из запроса
+     * @param cursor курсор из предыдущей страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница задач и курсор следующей страницы
+     * @throws ResponseStatusException если фильтр, курсор или размер страницы некорректны
      */
     @Override
-    public List<TaskDto> getALL() {
-        log.info("Получение всех задач");
-        return taskRepository.findAll()
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> getPage(TaskFilterDto filterDto, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Integer afterId = cursor == null ? 0 : Cursors.decodeId(cursor);
+        log.info("Получение страницы задач после ID: {}, размер: {}, фильтр: {}", afterId, pageSize, filterDto);
+
+        Optional<TaskFilter> filter = toFilter(filterDto);
+        if (filter.isEmpty()) {
+            return CursorPageDto.<TaskDto>builder()
+                    .items(List.of())
+                    .size(pageSize)
+                    .build();
+        }
+
+        List<TaskRow> rows = taskRepository.findRows(filter.get(), afterId, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskDto> items = mapRowsToDto(hasNext ? rows.subList(0, pageSize) : rows, false);
+
+        return CursorPageDto.<TaskDto>builder()
+                .items(items)
+                .nextCursor(hasNext ? Cursors.encode(items.get(items.size() - 1).getId()) : null)
+                .size(pageSize)
+                .build();
+    }
+
+    /**
+     * Получение страницы кратких представлений задач по фильтру с keyset-пагинацией по ID.
+     * Запрос читает только колонки краткого представления и не обращается к комментариям.
+     * @param filterDto условия фильтрации из запроса
+     * @param cursor курсор из предыдущей страницы или null для первой страницы
+     * @param size размер страницы или null для размера по умолчанию
+     * @return страница кратких представлений задач и курсор следующей страницы
+     * @throws ResponseStatusException если фильтр, курсор или размер страницы некорректны
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskSummaryDto> getSummaryPage(TaskFilterDto filterDto, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Integer afterId = cursor == null ? 0 : Cursors.decodeId(cursor);
+        log.info("Получение страницы кратких задач после ID: {}, размер: {}, фильтр: {}", afterId, pageSize, filterDto);
+
+        Optional<TaskFilter> filter = toFilter(filterDto);
+        if (filter.isEmpty()) {
+            return CursorPageDto.<TaskSummaryDto>builder()
+                    .items(List.of())
+                    .size(pageSize)
+                    .build();
+        }
+
+        List<TaskSummaryRow> rows = taskRepository.findSummaries(filter.get(), afterId, pageSize + 1);
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskSummaryDto> items = (hasNext ? rows.subList(0, pageSize) : rows).stream()
+                .map(TaskServices::mapToSummaryDto)
+                .toList();
+
+        return CursorPageDto.<TaskSummaryDto>builder()
+                .items(items)
+                .nextCursor(hasNext ? Cursors.encode(items.get(items.size() - 1).getId()) : null)
+                .size(pageSize)
+                .build();
+    }
+
+    /**
+     * Полнотекстовый поиск задач по заголовку, описанию и комментариям с ранжированием.
+     * Поиск и ранжирование выполняются в PostgreSQL по GIN-индексам, затем одним запросом
+     * читаются краткие представления найденных задач.
+     * @param query поисковая строка: слова, "фразы в кавычках", -исключения, or
+     * @param page номер страницы с нуля
+     * @param size размер страницы или null для размера по умолчанию
+     * @return найденные задачи в порядке убывания релевантности
+     * @throws ResponseStatusException если строка поиска пуста или параметры страницы некорректны
+     */
+    @Transactional(readOnly = true)
+    public List<TaskSearchHitDto> search(String query, int page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Строка поиска пуста");
+        }
+        if (page < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Номер страницы не может быть отрицательным");
+        }
+        int pageSize = resolvePageSize(size);
+        log.info("Поиск задач: '{}', страница: {}, размер: {}", query, page, pageSize);
+
+        List<TaskSearchHit> hits = taskRepository.search(query, pageSize, (long) page * pageSize);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, TaskSummaryRow> rows = taskRepository.findSummariesByIdIn(
+                        hits.stream().map(TaskSearchHit::getTaskId).toList())
                 .stream()
-                .map(TaskServices::mapToDto)
+                .collect(Collectors.toMap(TaskSummaryRow::id, Function.identity()));
+        return hits.stream()
+                .filter(hit -> rows.containsKey(hit.getTaskId()))
+                .map(hit -> new TaskSearchHitDto(mapToSummaryDto(rows.get(hit.getTaskId())), hit.getRank()))
+                .toList();
+    }
+
+    /**
+     * Преобразование фильтра из запроса в типизированный фильтр репозитория.
+     * Статус и приоритет разбираются в enum, username автора и исполнителя заменяются на ID.
+     * @param filterDto условия фильтрации из запроса, может быть null
+     * @return фильтр или пустой Optional, если указанный пользователь не существует и задач заведомо нет
+     * @throws ResponseStatusException если статус или приоритет некорректны
+     */
+    private Optional<TaskFilter> toFilter(TaskFilterDto filterDto) {
+        if (filterDto == null) {
+            return Optional.of(TaskFilter.EMPTY);
+        }
+        TaskStatus status = null;
+        if (filterDto.getStatus() != null) {
+            try {
+                status = TaskStatus.valueOf(filterDto.getStatus().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный статус задачи");
+            }
+        }
+        TaskPriority priority = null;
+        if (filterDto.getPriority() != null) {
+            try {
+                priority = TaskPriority.valueOf(filterDto.getPriority().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный приоритет задачи");
+            }
+        }
+        Integer authorsId = null;
+        if (filterDto.getAuthors() != null) {
+            Optional<Integer> id = userLookupCache.findIdByUsername(filterDto.getAuthors());
+            if (id.isEmpty()) {
+                return Optional.empty();
+            }
+            authorsId = id.get();
+        }
+        Integer executorId = null;
+        if (filterDto.getExecutor() != null) {
+            Optional<Integer> id = userLookupCache.findIdByUsername(filterDto.getExecutor());
+            if (id.isEmpty()) {
+                return Optional.empty();
+            }
+            executorId = id.get();
+        }
+        return Optional.of(new TaskFilter(status, priority, authorsId, executorId,
+                filterDto.getCreatedFrom(), filterDto.getCreatedTo(),
+                filterDto.getUpdatedFrom(), filterDto.getUpdatedTo()));
+    }
+
+    /**
+     * Экспорт всех задач с комментариями в формате NDJSON (одна задача - одна строка JSON).
+     * Задачи читаются курсором БД и пишутся в поток порциями, после каждой порции
+     * поток сбрасывается клиенту, а persistence context очищается, поэтому память
+     * не зависит от количества задач.
+     * @param out поток ответа
+     * @throws IOException если клиент оборвал соединение
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        log.info("Экспорт всех задач в NDJSON");
+        ObjectWriter writer = objectMapper.writerFor(TaskDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        List<TaskRow> chunk = new ArrayList<>(EXPORT_CHUNK);
+        try (Stream<TaskRow> rows = taskRepository.streamAllRows()) {
+            Iterator<TaskRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK) {
+                    writeNdjsonChunk(chunk, writer, out);
+                }
+            }
+        }
+        writeNdjsonChunk(chunk, writer, out);
+    }
+
+    /**
+     * Запись порции задач в NDJSON и освобождение памяти, занятой порцией.
+     * @param chunk порция проекций задач, очищается после записи
+     * @param writer writer для TaskDto
+     * @param out поток ответа
+     * @throws IOException если клиент оборвал соединение
+     */
+    private void writeNdjsonChunk(List<TaskRow> chunk, ObjectWriter writer, OutputStream out) throws IOException {
+        for (TaskDto taskDto : mapRowsToDto(chunk, true)) {
+            writer.writeValue(out, taskDto);
+            out.write('\n');
+        }
+        out.flush();
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    /**
+     * Преобразование проекций задач в DTO с догрузкой комментариев пакетами по ID задач.
+     * @param rows проекции задач
+     * @param withComments загружать ли комментарии; если нет, в DTO остается только их количество
+     * @return DTO задач в исходном порядке
+     */
+    private List<TaskDto> mapRowsToDto(List<TaskRow> rows, boolean withComments) {
+        if (!withComments) {
+            return rows.stream()
+                    .map(row -> mapToDto(row, Collections.emptyList()))
+                    .toList();
+        }
+        Map<Integer, List<CommentDto>> commentsByTask = new HashMap<>();
+        List<Integer> ids = rows.stream().map(TaskRow::id).toList();
+        for (int from = 0; from < ids.size(); from += COMMENT_FETCH_CHUNK) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + COMMENT_FETCH_CHUNK, ids.size()));
+            for (CommentDto comment : commentRepository.findDtosByTaskIdIn(chunk)) {
+                commentsByTask.computeIfAbsent(comment.getTaskId(), key -> new ArrayList<>()).add(comment);
+            }
+        }
+        return rows.stream()
+                .map(row -> mapToDto(row, commentsByTask.getOrDefault(row.id(), Collections.emptyList())))
                 .toList();
     }
 
+    /**
+     * Проверка запрошенного размера страницы.
+     * @param size размер страницы из запроса
+     * @return размер страницы в допустимых пределах
+     * @throws ResponseStatusException если размер меньше единицы
+     */
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Размер страницы должен быть положительным");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
     /**
      * Создание новой задачи
      * @param taskDto объект задачи для создания
      * @throws ResponseStatusException если заголовок слишком длинный
      */
     @Override
+    @Transactional
     public void create(TaskDto taskDto) {
         log.info("Создание новой задачи");
         Task task = mapToEntity(taskDto);
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdateAt(LocalDateTime.now());
-        taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        entityManager.flush();
+        copyGeneratedValues(savedTask, taskDto);
+        outboxWriter.appendCreated(OutboxEventType.TASK_CREATED, Map.of(savedTask.getId(), taskDto));
+    }
+
+    /**
+     * Пакетное создание задач вместе с вложенными комментариями.
+     * Задачи сохраняются порциями по размеру пакета JDBC: ID берутся из последовательности блоками,
+     * INSERT задач и комментариев уходят пакетами, после каждой порции persistence context очищается,
+     * чтобы память не росла с размером запроса.
+     * @param taskDtos задачи для создания
+     * @return те же DTO с присвоенными ID и временными метками
+     * @throws ResponseStatusException если список пуст, слишком велик или данные некорректны
+     */
+    @Override
+    @Transactional
+    public List<TaskDto> createBatch(List<TaskDto> taskDtos) {
+        log.info("Пакетное создание задач, количество: {}", taskDtos == null ? 0 : taskDtos.size());
+        if (taskDtos == null || taskDtos.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Список задач пуст");
+        }
+        if (taskDtos.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Нельзя создать больше %d задач за один запрос", maxBatchSize));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < taskDtos.size(); from += jdbcBatchSize) {
+            List<TaskDto> chunk = taskDtos.subList(from, Math.min(from + jdbcBatchSize, taskDtos.size()));
+            List<Task> tasks = new ArrayList<>(chunk.size());
+            for (TaskDto taskDto : chunk) {
+                Task task = mapToEntity(taskDto);
+                task.setCreatedAt(now);
+                task.setUpdateAt(now);
+                tasks.add(task);
+            }
+            taskRepository.saveAll(tasks);
+            entityManager.flush();
+
+            Map<Integer, TaskDto> created = new LinkedHashMap<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                copyGeneratedValues(tasks.get(i), chunk.get(i));
+                created.put(tasks.get(i).getId(), chunk.get(i));
+            }
+            outboxWriter.appendCreated(OutboxEventType.TASK_CREATED, created);
+            entityManager.clear();
+        }
+        return taskDtos;
     }
 
     /**
-     * Обновление существующей задачи
+     * Перенос сгенерированных ID и временных меток из сохраненной сущности обратно в DTO.
+     * @param task сохраненная задача
+     * @param taskDto исходный DTO задачи
+     */
+    private static void copyGeneratedValues(Task task, TaskDto taskDto) {
+        taskDto.setId(task.getId());
+        taskDto.setCreatedAt(task.getCreatedAt());
+        taskDto.setUpdateAt(task.getUpdateAt());
+        taskDto.setVersion(task.getVersion());
+        List<Comment> comments = task.getComments();
+        List<CommentDto> commentDtos = taskDto.getComments();
+        for (int i = 0; i < comments.size(); i++) {
+            CommentDto commentDto = commentDtos.get(i);
+            commentDto.setId(comments.get(i).getId());
+            commentDto.setTaskId(task.getId());
+            commentDto.setCreatedAt(comments.get(i).getCreatedAt());
+            commentDto.setUpdateAt(comments.get(i).getUpdateAt());
+            commentDto.setVersion(comments.get(i).getVersion());
+        }
+    }
+
+    /**
+     * Обновление существующей задачи.
+     * Если клиент передал version, запись по устаревшей версии отклоняется с 409.
+     * Без version обновление считается слиянием полей и при конфликте повторяется
+     * до tasks.update.max-retries раз на свежих данных.
      * @param id идентификатор задачи
      * @param taskDto обновленные данные задачи
-     * @throws ResponseStatusException если задача не найдена или данные некорректны
+     * @throws ResponseStatusException если задача не найдена, данные некорректны или версия устарела
      */
     @Override
     public void update(Integer id, TaskDto taskDto) {
         log.info("Обновление задачи {}", id);
+        executeWithRetry(id, taskDto.getVersion(), () -> applyUpdate(id, taskDto));
+    }
+
+    /**
+     * Применение обновления задачи в текущей транзакции.
+     * @param id идентификатор задачи
+     * @param taskDto обновленные данные задачи
+     */
+    private void applyUpdate(Integer id, TaskDto taskDto) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задачи не найдена"));
+        checkVersion(task, taskDto.getVersion());
         //Обновление всех полей
         task.setTitle(taskDto.getTitle());
         task.setDescription(taskDto.getDescription());
 
-        // обновление автора
+        // обновление автора и исполнителя: ссылка меняется, только если пользователь другой
         if (taskDto.getAuthors() != null) {
-            User author = userRepository.findByUsername(taskDto.getAuthors())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                            String.format("Автор с username %s не найден", taskDto.getAuthors())));
-            task.setAuthors(author);
+            resolveChangedUser(task.getAuthors(), taskDto.getAuthors(), "Автор")
+                    .ifPresent(task::setAuthors);
         }
-
-        // обновление исполнителя
         if (taskDto.getExecutor() != null) {
-            User executor = userRepository.findByUsername(taskDto.getExecutor())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
-                            String.format("Исполнитель c username %s не найден", taskDto.getExecutor())));
-            task.setExecutor(executor);
+            resolveChangedUser(task.getExecutor(), taskDto.getExecutor(), "Исполнитель")
+                    .ifPresent(task::setExecutor);
         }
         // Преобразование статуса из строки в enum
         // Обработка статуса
@@ -120,8 +533,254 @@ public class TaskServices implements TaskCRUDServices<TaskDto> {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный приоритет задачи");
         }
         task.setUpdateAt(LocalDateTime.now());
-        taskRepository.save(task);
+        taskRepository.saveAndFlush(task);
+        taskDto.setId(id);
+        taskDto.setUpdateAt(task.getUpdateAt());
+        taskDto.setVersion(task.getVersion());
+        outboxWriter.append(OutboxEventType.TASK_UPDATED, id, taskDto);
+    }
+
+    /**
+     * Частичное обновление задачи: применяются только переданные (не null) поля.
+     * Поле меняется, только если новое значение отличается от текущего; пользователи сравниваются
+     * по ID из UserLookupCache без загрузки сущностей User. Благодаря @DynamicUpdate UPDATE содержит
+     * только измененные колонки, а если ничего не изменилось - UPDATE и событие outbox не создаются.
+     * Конфликты версий обрабатываются так же, как в {@link #update(Integer, TaskDto)}.
+     * @param id идентификатор задачи
+     * @param taskDto изменяемые поля задачи
+     * @throws ResponseStatusException если задача или пользователь не найдены, данные некорректны или версия устарела
+     */
+    @Override
+    public void patch(Integer id, TaskDto taskDto) {
+        log.info("Частичное обновление задачи {}", id);
+        executeWithRetry(id, taskDto.getVersion(), () -> applyPatch(id, taskDto));
+    }
+
+    /**
+     * Применение частичного обновления задачи в текущей транзакции.
+     * @param id идентификатор задачи
+     * @param taskDto изменяемые поля задачи
+     */
+    private void applyPatch(Integer id, TaskDto taskDto) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Задачи не найдена"));
+        checkVersion(task, taskDto.getVersion());
+        boolean changed = false;
+
+        if (taskDto.getTitle() != null && !taskDto.getTitle().equals(task.getTitle())) {
+            task.setTitle(taskDto.getTitle());
+            changed = true;
+        }
+        if (taskDto.getDescription() != null && !taskDto.getDescription().equals(task.getDescription())) {
+            task.setDescription(taskDto.getDescription());
+            changed = true;
+        }
+        if (taskDto.getCompleted() != null && !taskDto.getCompleted().equals(task.getCompleted())) {
+            task.setCompleted(taskDto.getCompleted());
+            changed = true;
+        }
+        if (taskDto.getStatus() != null) {
+            TaskStatus status;
+            try {
+                status = TaskStatus.valueOf(taskDto.getStatus().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный статус задачи");
+            }
+            if (status != task.getStatus()) {
+                task.setStatus(status);
+                changed = true;
+            }
+        }
+        if (taskDto.getPriority() != null) {
+            TaskPriority priority;
+            try {
+                priority = TaskPriority.valueOf(taskDto.getPriority().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный приоритет задачи");
+            }
+            if (priority != task.getPriority()) {
+                task.setPriority(priority);
+                changed = true;
+            }
+        }
+        if (taskDto.getAuthors() != null) {
+            Optional<User> author = resolveChangedUser(task.getAuthors(), taskDto.getAuthors(), "Автор");
+            if (author.isPresent()) {
+                task.setAuthors(author.get());
+                changed = true;
+            }
+        }
+        if (taskDto.getExecutor() != null) {
+            Optional<User> executor = resolveChangedUser(task.getExecutor(), taskDto.getExecutor(), "Исполнитель");
+            if (executor.isPresent()) {
+                task.setExecutor(executor.get());
+                changed = true;
+            }
+        }
+
+        if (!changed) {
+            log.info("Задача {} не изменилась, обновление пропущено", id);
+            return;
+        }
+        task.setUpdateAt(LocalDateTime.now());
+        taskRepository.flush();
+        taskDto.setId(id);
+        taskDto.setUpdateAt(task.getUpdateAt());
+        taskDto.setVersion(task.getVersion());
+        outboxWriter.append(OutboxEventType.TASK_UPDATED, id, taskDto);
+    }
 
+    /**
+     * Выполнение изменения задачи в отдельной транзакции с обработкой конфликтов версий.
+     * Изменение с версией клиента выполняется один раз: конфликт означает, что клиент видел
+     * устаревшие данные. Изменение без версии повторяется на свежих данных, так как
+     * переданные поля просто накладываются на текущее состояние задачи.
+     * @param id идентификатор задачи
+     * @param expectedVersion версия из запроса или null
+     * @param action изменение задачи
+     * @throws VersionConflictException если конфликт не удалось разрешить
+     */
+    private void executeWithRetry(Integer id, Long expectedVersion, Runnable action) {
+        int attempts = expectedVersion == null ? maxUpdateRetries + 1 : 1;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> action.run());
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= attempts) {
+                    throw new VersionConflictException(
+                            String.format("Задача с ID %d была изменена другим запросом", id),
+                            taskRepository.findVersionById(id).orElse(null));
+                }
+                log.info("Конфликт версий задачи {}, повтор {} из {}", id, attempt, maxUpdateRetries);
+            }
+        }
+    }
+
+    /**
+     * Проверка версии задачи, которую видел клиент.
+     * @param task загруженная задача
+     * @param expectedVersion версия из запроса или null, если клиент ее не передал
+     * @throws VersionConflictException если версия устарела
+     */
+    private static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw new VersionConflictException(
+                    String.format("Задача с ID %d была изменена: версия %d, текущая %d",
+                            task.getId(), expectedVersion, task.getVersion()),
+                    task.getVersion());
+        }
+    }
+
+    /**
+     * Определение нового пользователя для связи задачи.
+     * ID сравнивается с ID текущей ссылки (getId у прокси не инициализирует его), поэтому
+     * для неизменного пользователя не выполняется ни поиск, ни загрузка сущности.
+     * @param current текущий пользователь задачи или null
+     * @param username username из запроса
+     * @param role роль пользователя для сообщения об ошибке
+     * @return ссылка на нового пользователя или пустой Optional, если пользователь не изменился
+     * @throws ResponseStatusException если пользователь с таким username не найден
+     */
+    private Optional<User> resolveChangedUser(User current, String username, String role) {
+        Integer userId = userLookupCache.findIdByUsername(username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        String.format("%s с username %s не найден", role, username)));
+        if (current != null && userId.equals(current.getId())) {
+            return Optional.empty();
+        }
+        return userLookupCache.findByUsername(username);
+    }
+
+    /**
+     * Массовое изменение статуса, приоритета и признака выполнения задач.
+     * Задачи блокируются одним SELECT ... FOR UPDATE, переходы статуса проверяются по
+     * {@link TaskStatus#canTransitionTo(TaskStatus)}, а допустимые задачи меняются одним UPDATE
+     * без загрузки сущностей и поиска пользователей. События outbox пишутся одним пакетом.
+     * @param transitionDto задачи (ids или filter) и новые значения полей
+     * @return количество найденных, измененных и пропущенных задач
+     * @throws ResponseStatusException если запрос некорректен или выбирает больше tasks.batch.max-size задач
+     */
+    @Transactional
+    public TaskTransitionResultDto transition(TaskTransitionDto transitionDto) {
+        boolean byIds = transitionDto.getIds() != null;
+        if (byIds == (transitionDto.getFilter() != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Укажите либо ids, либо filter");
+        }
+        TaskStatus status = null;
+        if (transitionDto.getStatus() != null) {
+            try {
+                status = TaskStatus.valueOf(transitionDto.getStatus().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный статус задачи");
+            }
+        }
+        TaskPriority priority = null;
+        if (transitionDto.getPriority() != null) {
+            try {
+                priority = TaskPriority.valueOf(transitionDto.getPriority().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Неверный приоритет задачи");
+            }
+        }
+        Boolean completed = transitionDto.getCompleted() != null || status == null
+                ? transitionDto.getCompleted()
+                : Boolean.valueOf(status == TaskStatus.COMPLETED);
+        if (status == null && priority == null && completed == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Не указаны изменяемые поля");
+        }
+
+        List<Integer> ids = byIds ? transitionDto.getIds().stream().distinct().toList() : null;
+        if (byIds && ids.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Слишком много задач в запросе: %d, максимум %d", ids.size(), maxBatchSize));
+        }
+        Optional<TaskFilter> filter = byIds ? Optional.of(TaskFilter.EMPTY) : toFilter(transitionDto.getFilter());
+        if (filter.isEmpty() || (byIds && ids.isEmpty())) {
+            return TaskTransitionResultDto.builder()
+                    .notFound(byIds ? ids.size() : 0)
+                    .build();
+        }
+        log.info("Массовое изменение задач: статус {}, приоритет {}, выполнена {}", status, priority, completed);
+
+        List<TaskStatusRow> rows = taskRepository.lockStatuses(filter.get(), ids, maxBatchSize + 1);
+        if (rows.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("Фильтр выбирает больше %d задач, сузьте его", maxBatchSize));
+        }
+        TaskStatus targetStatus = status;
+        List<Integer> allowed = rows.stream()
+                .filter(row -> targetStatus == null || row.status().canTransitionTo(targetStatus))
+                .map(TaskStatusRow::id)
+                .toList();
+
+        int updated = 0;
+        if (!allowed.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Integer> transitioned = taskRepository.transitionReturningIds(allowed,
+                    status != null ? status.name() : null, priority != null ? priority.name() : null, completed, now);
+            entityCacheEvictor.tasksTransitioned(transitioned);
+            updated = transitioned.size();
+            Map<Integer, Map<String, Object>> payloads = new LinkedHashMap<>();
+            for (Integer id : allowed) {
+                Map<String, Object> payload = new LinkedHashMap<>();
+                payload.put("id", id);
+                payload.put("status", status);
+                payload.put("priority", priority);
+                payload.put("completed", completed);
+                payload.put("updateAt", now);
+                payloads.put(id, payload);
+            }
+            outboxWriter.appendLocked(OutboxEventType.TASK_UPDATED, payloads);
+        }
+        log.info("Массовое изменение задач: найдено {}, изменено {}", rows.size(), updated);
+
+        return TaskTransitionResultDto.builder()
+                .matched(rows.size())
+                .updated(updated)
+                .rejected(rows.size() - allowed.size())
+                .notFound(byIds ? ids.size() - rows.size() : 0)
+                .build();
     }
 
     /**
@@ -130,12 +789,69 @@ public class TaskServices implements TaskCRUDServices<TaskDto> {
      * @throws ResponseStatusException если задача не найдена
      */
     @Override
+    @Transactional
     public void deletedById(Integer id) {
         log.info("Удаление задачи с ID: {}", id);
-        if (!taskRepository.existsById(id)) {
+        entityCacheEvictor.tasksDeleting(List.of(id));
+        if (taskRepository.deleteByIdInReturningIds(List.of(id)).isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Задачи не найдена");
         }
-        taskRepository.deleteById(id);
+        // строка задачи уже заблокирована DELETE до конца транзакции
+        outboxWriter.appendLocked(OutboxEventType.TASK_DELETED, Map.of(id, Map.of("id", id)));
+    }
+
+    /**
+     * Массовое удаление задач по списку ID или фильтру.
+     * Задачи удаляются одним DELETE, комментарии - каскадом в СУБД. При выборе фильтром
+     * ID сначала блокируются одним SELECT ... FOR UPDATE, чтобы удалить и записать события
+     * ровно по тем задачам, которые выбрал фильтр.
+     * @param deletionDto задачи: ids или filter
+     * @return количество удаленных и не найденных задач
+     * @throws ResponseStatusException если запрос некорректен или выбирает больше tasks.batch.max-size задач
+     */
+    @Transactional
+    public TaskDeletionResultDto deleteBatch(TaskDeletionDto deletionDto) {
+        boolean byIds = deletionDto.getIds() != null;
+        if (byIds == (deletionDto.getFilter() != null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Укажите либо ids, либо filter");
+        }
+        List<Integer> ids;
+        if (byIds) {
+            ids = deletionDto.getIds().stream().distinct().toList();
+            if (ids.size() > maxBatchSize) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        String.format("Слишком много задач в запросе: %d, максимум %d", ids.size(), maxBatchSize));
+            }
+        } else {
+            Optional<TaskFilter> filter = toFilter(deletionDto.getFilter());
+            if (filter.isEmpty()) {
+                return TaskDeletionResultDto.builder().build();
+            }
+            List<TaskStatusRow> rows = taskRepository.lockStatuses(filter.get(), null, maxBatchSize + 1);
+            if (rows.size() > maxBatchSize) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        String.format("Фильтр выбирает больше %d задач, сузьте его", maxBatchSize));
+            }
+            ids = rows.stream().map(TaskStatusRow::id).toList();
+        }
+        if (ids.isEmpty()) {
+            return TaskDeletionResultDto.builder().build();
+        }
+        log.info("Массовое удаление задач: {}", ids.size());
+
+        entityCacheEvictor.tasksDeleting(ids);
+        List<Integer> deleted = taskRepository.deleteByIdInReturningIds(ids);
+        Map<Integer, Map<String, Object>> payloads = new LinkedHashMap<>();
+        for (Integer id : deleted) {
+            payloads.put(id, Map.of("id", id));
+        }
+        outboxWriter.appendLocked(OutboxEventType.TASK_DELETED, payloads);
+        log.info("Массовое удаление задач: удалено {}", deleted.size());
+
+        return TaskDeletionResultDto.builder()
+                .deleted(deleted.size())
+                .notFound(ids.size() - deleted.size())
+                .build();
     }
 
     /**
@@ -154,12 +870,14 @@ public class TaskServices implements TaskCRUDServices<TaskDto> {
         taskDto.setPriority(task.getPriority().name());
         taskDto.setCreatedAt(task.getCreatedAt());
         taskDto.setUpdateAt(task.getUpdateAt());
+        taskDto.setVersion(task.getVersion());
         taskDto.setComments(
                 task.getComments()
                         .stream()
                         .map(CommentServices::mapToDo)
                         .toList()
         );
+        taskDto.setCommentCount((long) task.getComments().size());
         if (task.getAuthors() != null) {
             taskDto.setAuthors(task.getAuthors().getUsername());
         }
@@ -174,39 +892,84 @@ public class TaskServices implements TaskCRUDServices<TaskDto> {
     }
 
     /**
-     * Преобразование DTO в сущность задачи.
-     * Копирует основные поля из DTO в сущность.
+     * Преобразование проекции задачи в DTO.
+     * @param row проекция задачи
+     * @param comments комментарии задачи
+     * @return DTO объект задачи
+     */
+    public static TaskDto mapToDto(TaskRow row, List<CommentDto> comments) {
+        TaskDto taskDto = new TaskDto();
+        taskDto.setId(row.id());
+        taskDto.setTitle(row.title());
+        taskDto.setDescription(row.description());
+        taskDto.setCompleted(row.completed());
+        taskDto.setStatus(row.status().name());
+        taskDto.setPriority(row.priority() != null ? row.priority().name() : null);
+        taskDto.setAuthors(row.authors());
+        taskDto.setExecutor(row.executor());
+        taskDto.setCreatedAt(row.createdAt());
+        taskDto.setUpdateAt(row.updateAt());
+        taskDto.setComments(comments);
+        taskDto.setCommentCount(row.commentCount());
+        taskDto.setVersion(row.version());
+        return taskDto;
+    }
+
+    /**
+     * Преобразование краткой проекции задачи в DTO.
+     * @param row краткая проекция задачи
+     * @return краткое DTO задачи
+     */
+    public static TaskSummaryDto mapToSummaryDto(TaskSummaryRow row) {
+        TaskSummaryDto summaryDto = new TaskSummaryDto();
+        summaryDto.setId(row.id());
+        summaryDto.setTitle(row.title());
+        summaryDto.setStatus(row.status().name());
+        summaryDto.setPriority(row.priority() != null ? row.priority().name() : null);
+        summaryDto.setExecutor(row.executor());
+        summaryDto.setUpdateAt(row.updateAt());
+        return summaryDto;
+    }
+
+    /**
+     * Преобразование DTO в новую сущность задачи.
+     * Копирует основные поля из DTO в сущность. ID задачи и вложенных комментариев из DTO
+     * не копируются: их назначают последовательности, иначе вставка стала бы слиянием
+     * с существующей строкой или заняла бы ID, который позже выдаст последовательность.
      * @param taskDto DTO для преобразования
-     * @return сущность задачи
+     * @return сущность задачи без ID
      */
     public Task mapToEntity(TaskDto taskDto) {
         Task task = new Task();
-        task.setId(taskDto.getId());
         task.setTitle(taskDto.getTitle());
         task.setDescription(taskDto.getDescription());
         task.setCompleted(taskDto.getCompleted());
 
         if (taskDto.getAuthors() != null) {
-            User user = userRepository.findByUsername(taskDto.getAuthors())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Автор c id %d не найдена", taskDto.getAuthors())));
+            User user = userLookupCache.findByUsername(taskDto.getAuthors())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Автор c username %s не найден", taskDto.getAuthors())));
             task.setAuthors(user);
         }
 
         if (taskDto.getExecutor() != null) {
-            User user = userRepository.findByUsername(taskDto.getExecutor())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Автор c id %d не найдена", taskDto.getExecutor())));
+            User user = userLookupCache.findByUsername(taskDto.getExecutor())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, String.format("Исполнитель c username %s не найден", taskDto.getExecutor())));
             task.setExecutor(user);
         }
 
 
 
 
-        task.setComments(
-                taskDto.getComments()
-                        .stream()
-                        .map(CommentServices::mapToEntity)
-                        .toList()
-        );
+        List<Comment> comments = new ArrayList<>();
+        if (taskDto.getComments() != null) {
+            for (CommentDto commentDto : taskDto.getComments()) {
+                Comment comment = CommentServices.mapToEntity(commentDto);
+                comment.setId(null);
+                comment.setTask(task);
+                comments.add(comment);
+            }
+        }
+        task.setComments(comments);
 
 
         // Обработка статуса
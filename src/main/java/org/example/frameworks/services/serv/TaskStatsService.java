@@ -0,0 +1,127 @@
+package org.example.frameworks.services.serv;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.dto.TaskStatsDto;
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
+import org.example.frameworks.repository.TaskRepository;
+import org.example.frameworks.repository.projection.DayCount;
+import org.example.frameworks.repository.projection.GroupCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * TODO: Сводка по задачам для дашборда: количество задач по статусам, приоритетам,
+ *  исполнителям и дням создания. Числа считаются агрегатными запросами GROUP BY без загрузки сущностей.
+ *  Результат кэшируется на tasks.stats.cache-ttl по диапазону дат: одновременные запросы
+ *  одного диапазона ждут одного расчета, поэтому волна обновлений дашборда дает один набор
+ *  запросов к базе. Статистика кэша публикуется в метрики cache.gets с тегом cache=tasks.stats.
+ */
+@Service
+@Slf4j
+@Timed("tasks.stats.service")
+public class TaskStatsService {
+
+    private static final String NONE = "NONE";
+
+    private final TaskRepository taskRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final LoadingCache<StatsKey, TaskStatsDto> stats;
+
+    public TaskStatsService(TaskRepository taskRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${tasks.stats.cache-ttl:10s}") Duration ttl,
+                            @Value("${tasks.stats.cache-size:100}") long maximumSize) {
+        this.taskRepository = taskRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.stats = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, stats, "tasks.stats");
+    }
+
+    /**
+     * Получение сводки по задачам, созданным в заданном диапазоне.
+     * @param createdFrom нижняя граница даты создания (включительно) или null
+     * @param createdTo верхняя граница даты создания (исключительно) или null
+     * @return сводка по задачам, не старше tasks.stats.cache-ttl
+     * @throws ResponseStatusException если нижняя граница не раньше верхней
+     */
+    public TaskStatsDto getStats(LocalDateTime createdFrom, LocalDateTime createdTo) {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "createdFrom должна быть раньше createdTo");
+        }
+        return stats.get(new StatsKey(createdFrom, createdTo));
+    }
+
+    private TaskStatsDto load(StatsKey key) {
+        log.info("Расчет сводки по задачам, созданным с {} по {}", key.createdFrom(), key.createdTo());
+        return readOnlyTransaction.execute(status -> {
+            Map<String, Long> byStatus = counters(taskRepository.countByStatus(key.createdFrom(), key.createdTo()),
+                    TaskStatus.values());
+            Map<String, Long> byPriority = counters(taskRepository.countByPriority(key.createdFrom(), key.createdTo()),
+                    TaskPriority.values());
+            Map<String, Long> byExecutor = counters(taskRepository.countByExecutor(key.createdFrom(), key.createdTo()),
+                    new Enum<?>[0]);
+            Map<LocalDate, Long> createdPerDay = new LinkedHashMap<>();
+            for (DayCount dayCount : taskRepository.countCreatedPerDay(key.createdFrom(), key.createdTo())) {
+                createdPerDay.put(dayCount.day(), dayCount.count());
+            }
+            return TaskStatsDto.builder()
+                    .total(byStatus.values().stream().mapToLong(Long::longValue).sum())
+                    .byStatus(byStatus)
+                    .byPriority(byPriority)
+                    .byExecutor(byExecutor)
+                    .createdPerDay(createdPerDay)
+                    .createdFrom(key.createdFrom())
+                    .createdTo(key.createdTo())
+                    .generatedAt(LocalDateTime.now())
+                    .build();
+        });
+    }
+
+    /**
+     * Счетчики по группам: все значения перечисления с нулями, затем строки запроса.
+     * @param rows результат запроса GROUP BY
+     * @param values значения, которые должны присутствовать даже без задач
+     * @return карта группа - количество; группа null записывается как NONE
+     */
+    private static Map<String, Long> counters(List<GroupCount> rows, Enum<?>[] values) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (Enum<?> value : values) {
+            counters.put(value.name(), 0L);
+        }
+        for (GroupCount row : rows) {
+            counters.put(row.key() != null ? row.key() : NONE, row.count());
+        }
+        return counters;
+    }
+
+    /**
+     * Ключ кэша сводки - диапазон дат создания.
+     */
+    private record StatsKey(LocalDateTime createdFrom, LocalDateTime createdTo) {
+    }
+}
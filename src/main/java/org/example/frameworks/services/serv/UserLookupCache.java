@@ -0,0 +1,101 @@
+package org.example.frameworks.services.serv;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.example.frameworks.entity.User;
+import org.example.frameworks.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+
+/**
+ * TODO: Ограниченный потокобезопасный кэш соответствия username/email -> ID пользователя.
+ *  Стоит перед UserRepository при записи задач: по ID из кэша берется ссылка (getReferenceById)
+ *  без обращения к базе. Отсутствующие пользователи не кэшируются, поэтому новый пользователь
+ *  виден сразу после создания. Статистика попаданий/промахов публикуется в метрики
+ *  cache.gets с тегами cache=users.byUsername / users.byEmail.
+ */
+@Component
+@Slf4j
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+
+    private final Cache<String, Integer> idsByUsername;
+
+    private final Cache<String, Integer> idsByEmail;
+
+    public UserLookupCache(UserRepository userRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${users.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${users.cache.ttl:10m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.idsByUsername = newCache(maximumSize, ttl);
+        this.idsByEmail = newCache(maximumSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users.byUsername");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByEmail, "users.byEmail");
+    }
+
+    private static Cache<String, Integer> newCache(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Поиск ID пользователя по username.
+     * @param username имя пользователя
+     * @return ID пользователя, если он существует
+     */
+    public Optional<Integer> findIdByUsername(String username) {
+        return Optional.ofNullable(idsByUsername.get(username,
+                key -> userRepository.findIdByUsername(key).orElse(null)));
+    }
+
+    /**
+     * Поиск ID пользователя по email.
+     * @param email email пользователя
+     * @return ID пользователя, если он существует
+     */
+    public Optional<Integer> findIdByEmail(String email) {
+        return Optional.ofNullable(idsByEmail.get(email,
+                key -> userRepository.findIdByEmail(key).orElse(null)));
+    }
+
+    /**
+     * Поиск пользователя по username.
+     * @param username имя пользователя
+     * @return ссылка на пользователя (прокси без загрузки полей), если он существует
+     */
+    public Optional<User> findByUsername(String username) {
+        return findIdByUsername(username).map(userRepository::getReferenceById);
+    }
+
+    /**
+     * Поиск пользователя по email.
+     * @param email email пользователя
+     * @return ссылка на пользователя (прокси без загрузки полей), если он существует
+     */
+    public Optional<User> findByEmail(String email) {
+        return findIdByEmail(email).map(userRepository::getReferenceById);
+    }
+
+    /**
+     * Удаление из кэша всех записей пользователя.
+     * Вызывается при изменении username/email и при удалении пользователя.
+     * @param id ID пользователя
+     */
+    public void evict(Integer id) {
+        log.info("Сброс кэша поиска для пользователя с ID: {}", id);
+        idsByUsername.asMap().values().removeIf(id::equals);
+        idsByEmail.asMap().values().removeIf(id::equals);
+    }
+}
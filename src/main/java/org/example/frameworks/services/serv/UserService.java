@@ -1,24 +1,34 @@
 package org.example.frameworks.services.serv;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.frameworks.dto.UserDto;
+import org.example.frameworks.dto.UserTaskStatsDto;
 import org.example.frameworks.entity.Task;
 import org.example.frameworks.entity.User;
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
 import org.example.frameworks.repository.TaskRepository;
 import org.example.frameworks.repository.UserRepository;
+import org.example.frameworks.repository.projection.UserTaskStatRow;
 import org.example.frameworks.services.crudes.UserCRUDServices;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Timed("users.service")
 public class UserService implements UserCRUDServices<UserDto> {
 
     /**
@@ -33,6 +43,18 @@ public class UserService implements UserCRUDServices<UserDto> {
      */
     private final TaskRepository taskRepository;
 
+    /**
+     * Кэш поиска пользователей по username/email.
+     * Сбрасывается при изменении и удалении пользователя.
+     */
+    private final UserLookupCache userLookupCache;
+
+    /**
+     * Сброс кэша второго уровня Hibernate.
+     * Нужен после удаления: СУБД обнуляет ссылки задач на пользователя в обход Hibernate.
+     */
+    private final EntityCacheEvictor entityCacheEvictor;
+
 
     /**
      * Получает пользователя по ID.
@@ -50,6 +72,72 @@ public class UserService implements UserCRUDServices<UserDto> {
         return mapToDto(user);
     }
 
+    /**
+     * Получение нагрузки пользователя: количество задач по статусам и приоритетам,
+     * отдельно как исполнителя и как автора. Счетчики поддерживаются триггерами
+     * в таблице user_task_stats, поэтому чтение не сканирует задачи.
+     * @param id ID пользователя
+     * @return счетчики задач пользователя; отсутствующие комбинации равны нулю
+     * @throws ResponseStatusException если пользователь не найден
+     */
+    @Transactional(readOnly = true)
+    public UserTaskStatsDto getTaskStats(Integer id) throws ResponseStatusException {
+        log.info("Получение статистики задач пользователя с ID: {}", id);
+        if (!userRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    String.format("Пользователь с ID %d не найден", id));
+        }
+        Map<String, Long> executorByStatus = emptyCounters(TaskStatus.values());
+        Map<String, Long> executorByPriority = emptyCounters(TaskPriority.values());
+        Map<String, Long> authorByStatus = emptyCounters(TaskStatus.values());
+        Map<String, Long> authorByPriority = emptyCounters(TaskPriority.values());
+        long executorTotal = 0;
+        long authorTotal = 0;
+        for (UserTaskStatRow row : userRepository.findTaskStats(id)) {
+            if ("EXECUTOR".equals(row.getRole())) {
+                executorByStatus.merge(row.getStatus(), row.getTaskCount(), Long::sum);
+                executorByPriority.merge(row.getPriority(), row.getTaskCount(), Long::sum);
+                executorTotal += row.getTaskCount();
+            } else {
+                authorByStatus.merge(row.getStatus(), row.getTaskCount(), Long::sum);
+                authorByPriority.merge(row.getPriority(), row.getTaskCount(), Long::sum);
+                authorTotal += row.getTaskCount();
+            }
+        }
+        return UserTaskStatsDto.builder()
+                .userId(id)
+                .executorTotal(executorTotal)
+                .executorByStatus(executorByStatus)
+                .executorByPriority(executorByPriority)
+                .authorTotal(authorTotal)
+                .authorByStatus(authorByStatus)
+                .authorByPriority(authorByPriority)
+                .build();
+    }
+
+    /**
+     * Нулевые счетчики для всех значений перечисления в порядке объявления.
+     * @param values значения перечисления
+     * @return изменяемая карта имя значения - 0
+     */
+    private static Map<String, Long> emptyCounters(Enum<?>[] values) {
+        Map<String, Long> counters = new LinkedHashMap<>();
+        for (Enum<?> value : values) {
+            counters.put(value.name(), 0L);
+        }
+        return counters;
+    }
+
+    /**
+     * Вычисляет ETag пользователя по времени его обновления, без загрузки сущности.
+     * @param id идентификатор пользователя
+     * @return ETag или пустой Optional, если пользователь не найден
+     */
+    public Optional<String> getETag(Integer id) {
+        return userRepository.findUpdatedAtById(id)
+                .map(updatedAt -> ETags.weak(id, updatedAt));
+    }
+
     /**
      * Получает всех пользователей в системе.
      * @return список всех пользователей в формате DTO
@@ -73,12 +161,12 @@ public class UserService implements UserCRUDServices<UserDto> {
     public UserDto create(UserDto userDto) throws ResponseStatusException {
         log.info("Создание нового пользователя");
 
-        if (userRepository.existsByUsername(userDto.getUsername())) {
+        if (userLookupCache.findIdByUsername(userDto.getUsername()).isPresent()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     String.format("Пользователь с именем %s уже существует", userDto.getUsername()));
         }
 
-        if (userRepository.existsByEmail(userDto.getEmail())) {
+        if (userLookupCache.findIdByEmail(userDto.getEmail()).isPresent()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                     String.format("Пользователь с email %s уже существует", userDto.getEmail()));
         }
@@ -93,25 +181,37 @@ public class UserService implements UserCRUDServices<UserDto> {
 
     /**
      * Обновляет данные пользователя.
+     * Строка пользователя блокируется на время транзакции, поэтому версия из запроса сравнивается
+     * с той, что будет записана: параллельное обновление ждет фиксации, а не завершается
+     * ошибкой оптимистической блокировки при flush.
      * @param id ID пользователя для обновления
      * @param userDto новые данные пользователя
      * @return обновленный пользователь в формате DTO
      * @throws ResponseStatusException если пользователь не найден
+     * @throws VersionConflictException если передана устаревшая версия
      */
     @Override
+    @Transactional
     public UserDto update(Integer id, UserDto userDto) throws ResponseStatusException {
         log.info("Обновление пользователя с ID: {}", id);
-        User user = userRepository.findById(id)
+        User user = userRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
                         String.format("Пользователь с ID %d не найден", id)));
+        if (userDto.getVersion() != null && !userDto.getVersion().equals(user.getVersion())) {
+            throw new VersionConflictException(
+                    String.format("Пользователь с ID %d был изменен: версия %d, текущая %d",
+                            id, userDto.getVersion(), user.getVersion()),
+                    user.getVersion());
+        }
 
         user.setUsername(userDto.getUsername());
         user.setEmail(userDto.getEmail());
         user.setPassword(userDto.getPassword());
         user.setUpdatedAt(LocalDateTime.now());
 
-        User updatedUser = userRepository.save(user);
-         return mapToDto(updatedUser);
+        User updatedUser = userRepository.saveAndFlush(user);
+        userLookupCache.evict(id);
+        return mapToDto(updatedUser);
     }
 
     /**
@@ -120,13 +220,15 @@ public class UserService implements UserCRUDServices<UserDto> {
      * @throws ResponseStatusException если пользователь не найден
      */
     @Override
+    @Transactional
     public void deleteById(Integer id) throws ResponseStatusException {
         log.info("Удаление пользователя с ID: {}", id);
-        if (!userRepository.existsById(id)) {
+        entityCacheEvictor.userDeleting(id);
+        if (userRepository.deleteByIdReturningId(id).isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND,
                     String.format("Пользователь с ID %d не найден", id));
         }
-        userRepository.deleteById(id);
+        userLookupCache.evict(id);
     }
 
     /**
@@ -142,6 +244,7 @@ public class UserService implements UserCRUDServices<UserDto> {
         userDto.setPassword(user.getPassword());
         userDto.setCreatedAt(user.getCreatedAt());
         userDto.setUpdateAt(user.getUpdatedAt());
+        userDto.setVersion(user.getVersion());
         return userDto;
     }
 
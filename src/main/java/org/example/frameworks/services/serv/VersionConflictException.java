@@ -0,0 +1,25 @@
+package org.example.frameworks.services.serv;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+
+/**
+ * TODO: Исключение при записи по устаревшей версии сущности (оптимистическая блокировка).
+ *  Отдается клиенту как 409 Conflict вместе с текущей версией, чтобы он мог перечитать
+ *  сущность и повторить изменение.
+ */
+@Getter
+public class VersionConflictException extends ResponseStatusException {
+
+    /**
+     * Текущая версия сущности в базе данных или null, если сущность уже удалена.
+     */
+    private final Long currentVersion;
+
+    public VersionConflictException(String reason, Long currentVersion) {
+        super(HttpStatus.CONFLICT, reason);
+        this.currentVersion = currentVersion;
+    }
+}
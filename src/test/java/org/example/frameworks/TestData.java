@@ -0,0 +1,74 @@
+package org.example.frameworks;
+
+import lombok.RequiredArgsConstructor;
+import org.example.frameworks.entity.Comment;
+import org.example.frameworks.entity.Task;
+import org.example.frameworks.entity.User;
+import org.example.frameworks.entity.enumes.TaskPriority;
+import org.example.frameworks.entity.enumes.TaskStatus;
+import org.example.frameworks.repository.TaskRepository;
+import org.example.frameworks.repository.UserRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * TODO: Создание тестовых пользователей, задач и комментариев.
+ *  Имена уникальны в каждом вызове, поэтому тесты не мешают друг другу на общей базе.
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class TestData {
+
+    private final UserRepository userRepository;
+
+    private final TaskRepository taskRepository;
+
+    /**
+     * Создание пользователя с уникальными username, email и паролем.
+     * @return сохраненный пользователь
+     */
+    public User user() {
+        String name = "u-" + UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        return userRepository.saveAndFlush(User.builder()
+                .username(name)
+                .email(name + "@example.org")
+                .password(name)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    /**
+     * Создание задачи в статусе WAITING с комментариями.
+     * @param author автор задачи или null
+     * @param executor исполнитель задачи или null
+     * @param commentCount количество комментариев
+     * @return сохраненная задача
+     */
+    public Task task(User author, User executor, int commentCount) {
+        LocalDateTime now = LocalDateTime.now();
+        Task task = Task.builder()
+                .title("Задача " + UUID.randomUUID())
+                .description("Описание")
+                .completed(false)
+                .status(TaskStatus.WAITING)
+                .priority(TaskPriority.MEDIUM)
+                .authors(author)
+                .executor(executor)
+                .createdAt(now)
+                .updateAt(now)
+                .build();
+        List<Comment> comments = new ArrayList<>(commentCount);
+        for (int i = 0; i < commentCount; i++) {
+            comments.add(Comment.builder().text("Комментарий " + i).task(task).build());
+        }
+        task.setComments(comments);
+        return taskRepository.saveAndFlush(task);
+    }
+}
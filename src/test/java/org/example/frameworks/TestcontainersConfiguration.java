@@ -0,0 +1,22 @@
+package org.example.frameworks;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+
+/**
+ * TODO: PostgreSQL в Docker для интеграционных тестов.
+ *  Контейнер запускается один раз на контекст Spring, параметры подключения передаются
+ *  в DataSource через @ServiceConnection; схему создает Liquibase, как в приложении.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TestcontainersConfiguration {
+
+    @Bean
+    @ServiceConnection
+    public PostgreSQLContainer<?> postgresContainer() {
+        return new PostgreSQLContainer<>("postgres:16-alpine");
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.frameworks.repository;
+
+import org.example.frameworks.TestData;
+import org.example.frameworks.TestcontainersConfiguration;
+import org.example.frameworks.entity.Task;
+import org.example.frameworks.entity.User;
+import org.example.frameworks.repository.projection.TaskRow;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * TODO: Проекции задач из Criteria-запросов TaskRepositoryImpl на реальной схеме PostgreSQL.
+ *  Конструкторное выражение проверяется Hibernate только при выполнении запроса,
+ *  поэтому запросы здесь выполняются, а не только строятся.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({TestcontainersConfiguration.class, TestData.class})
+class TaskRepositoryTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void findRowsReturnsUsersCommentCountAndVersion() {
+        User author = testData.user();
+        User executor = testData.user();
+        Task commented = testData.task(author, executor, 2);
+        Task edited = testData.task(null, executor, 0);
+        edited.setTitle("Новый заголовок");
+        taskRepository.saveAndFlush(edited);
+
+        List<TaskRow> rows = taskRepository.findRows(byExecutor(executor), 0, 10);
+
+        assertThat(rows).extracting(TaskRow::id).containsExactly(commented.getId(), edited.getId());
+        TaskRow commentedRow = rows.get(0);
+        assertThat(commentedRow.authors()).isEqualTo(author.getUsername());
+        assertThat(commentedRow.executor()).isEqualTo(executor.getUsername());
+        assertThat(commentedRow.commentCount()).isEqualTo(2);
+        assertThat(commentedRow.version()).isZero();
+        TaskRow editedRow = rows.get(1);
+        assertThat(editedRow.title()).isEqualTo("Новый заголовок");
+        assertThat(editedRow.authors()).isNull();
+        assertThat(editedRow.commentCount()).isZero();
+        assertThat(editedRow.version()).isEqualTo(1);
+    }
+
+    @Test
+    void findRowsMatchesFindRowById() {
+        User executor = testData.user();
+        Task task = testData.task(testData.user(), executor, 3);
+
+        List<TaskRow> rows = taskRepository.findRows(byExecutor(executor), 0, 10);
+
+        assertThat(rows).containsExactly(taskRepository.findRowById(task.getId()).orElseThrow());
+    }
+
+    @Test
+    void findRowsContinuesAfterKeysetCursor() {
+        User executor = testData.user();
+        Task first = testData.task(null, executor, 0);
+        Task second = testData.task(null, executor, 0);
+        Task third = testData.task(null, executor, 0);
+
+        List<TaskRow> page = taskRepository.findRows(byExecutor(executor), first.getId(), 1);
+
+        assertThat(page).extracting(TaskRow::id).containsExactly(second.getId());
+        assertThat(taskRepository.findRows(byExecutor(executor), third.getId(), 10)).isEmpty();
+    }
+
+    private static TaskFilter byExecutor(User executor) {
+        return new TaskFilter(null, null, null, executor.getId(), null, null, null, null);
+    }
+}
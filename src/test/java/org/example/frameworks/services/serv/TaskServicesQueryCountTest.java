@@ -0,0 +1,137 @@
+package org.example.frameworks.services.serv;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.frameworks.TestData;
+import org.example.frameworks.TestcontainersConfiguration;
+import org.example.frameworks.dto.CursorPageDto;
+import org.example.frameworks.dto.TaskDto;
+import org.example.frameworks.dto.TaskFilterDto;
+import org.example.frameworks.dto.TaskSummaryDto;
+import org.example.frameworks.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * TODO: Количество SQL-запросов на чтение задач не зависит от количества задач и комментариев.
+ *  Запросы считаются по статистике Hibernate (generate_statistics включен в application.properties).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({TestcontainersConfiguration.class, TestData.class})
+class TaskServicesQueryCountTest {
+
+    @Autowired
+    private TaskServices taskServices;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void getByIdUsesOneStatementRegardlessOfCommentCount() {
+        User author = testData.user();
+        User executor = testData.user();
+        Integer quiet = testData.task(author, executor, 1).getId();
+        Integer busy = testData.task(author, executor, 200).getId();
+
+        TaskDto quietTask = countStatements(() -> taskServices.getById(quiet), 1);
+        TaskDto busyTask = countStatements(() -> taskServices.getById(busy), 1);
+
+        assertThat(quietTask.getCommentCount()).isEqualTo(1);
+        assertThat(busyTask.getCommentCount()).isEqualTo(200);
+        assertThat(busyTask.getComments()).isEmpty();
+        assertThat(busyTask.getAuthors()).isEqualTo(author.getUsername());
+        assertThat(busyTask.getExecutor()).isEqualTo(executor.getUsername());
+    }
+
+    @Test
+    void getETagUsesOneStatement() {
+        User author = testData.user();
+        Integer id = testData.task(author, testData.user(), 5).getId();
+
+        assertThat(countStatements(() -> taskServices.getETag(id), 1)).isPresent();
+    }
+
+    @Test
+    void getPageUsesOneStatementRegardlessOfTaskCount() {
+        User author = testData.user();
+        User fewTasksExecutor = testData.user();
+        User manyTasksExecutor = testData.user();
+        for (int i = 0; i < 2; i++) {
+            testData.task(author, fewTasksExecutor, 3);
+        }
+        for (int i = 0; i < 40; i++) {
+            testData.task(author, manyTasksExecutor, 3);
+        }
+        TaskFilterDto few = TaskFilterDto.builder().executor(fewTasksExecutor.getUsername()).build();
+        TaskFilterDto many = TaskFilterDto.builder().executor(manyTasksExecutor.getUsername()).build();
+        // username исполнителя заменяется на ID через UserLookupCache; первый вызов заполняет кэш
+        taskServices.getPage(few, null, 50);
+        taskServices.getPage(many, null, 50);
+
+        CursorPageDto<TaskDto> fewPage = countStatements(() -> taskServices.getPage(few, null, 50), 1);
+        CursorPageDto<TaskDto> manyPage = countStatements(() -> taskServices.getPage(many, null, 50), 1);
+
+        assertThat(fewPage.getItems()).hasSize(2);
+        assertThat(manyPage.getItems()).hasSize(40)
+                .allSatisfy(task -> {
+                    assertThat(task.getAuthors()).isEqualTo(author.getUsername());
+                    assertThat(task.getExecutor()).isEqualTo(manyTasksExecutor.getUsername());
+                    assertThat(task.getCommentCount()).isEqualTo(3);
+                });
+    }
+
+    @Test
+    void getSummaryPageUsesOneStatementRegardlessOfTaskCount() {
+        User executor = testData.user();
+        for (int i = 0; i < 30; i++) {
+            testData.task(null, executor, 2);
+        }
+        TaskFilterDto filter = TaskFilterDto.builder().executor(executor.getUsername()).build();
+        taskServices.getSummaryPage(filter, null, 10);
+
+        CursorPageDto<TaskSummaryDto> firstPage = countStatements(() -> taskServices.getSummaryPage(filter, null, 10), 1);
+        CursorPageDto<TaskSummaryDto> lastPage = countStatements(
+                () -> taskServices.getSummaryPage(filter, firstPage.getNextCursor(), 100), 1);
+
+        assertThat(firstPage.getItems()).hasSize(10);
+        assertThat(lastPage.getItems()).hasSize(20);
+        assertThat(lastPage.getNextCursor()).isNull();
+    }
+
+    /**
+     * Выполнение действия с проверкой количества подготовленных SQL-запросов.
+     * @param action проверяемое действие
+     * @param expectedStatements ожидаемое количество запросов
+     * @return результат действия
+     */
+    private <T> T countStatements(Supplier<T> action, long expectedStatements) {
+        statistics.clear();
+        T result = action.get();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("количество SQL-запросов")
+                .isEqualTo(expectedStatements);
+        return result;
+    }
+}